@@ -1,7 +1,9 @@
 package com.project.Trinity.Config;
 import com.project.Trinity.Service.UsernameAlreadyExistsException;
 import com.project.Trinity.Service.InvalidRefreshTokenException;
+import com.project.Trinity.Service.PasswordHashingRejectedException;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -20,6 +22,12 @@ public class GlobalExceptionHandler {
 	public ResponseEntity<String> handleInvalidRefreshToken(InvalidRefreshTokenException ex) {
 	    return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
 	}//Refresh token ile yeni bir access token alınmaya çalışıldığında hata olursa, istemciye neden başarısız olduğunu bildirir.
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<String> handlePasswordHashingRejected(PasswordHashingRejectedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }//Giriş/kayıt yoğunluğunda istekler thread tüketerek beklemek yerine hızlıca geri çevrilir.
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<String> handleAccessDenied(AccessDeniedException ex) {
         return new ResponseEntity<>("Erişim reddedildi", HttpStatus.FORBIDDEN);
@@ -1,16 +1,51 @@
-
 package com.project.Trinity.Config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
 public class PasswordEncoderConfig {
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    private static final Logger logger = LoggerFactory.getLogger(PasswordEncoderConfig.class);
+    private static final String CALIBRATION_SAMPLE = "calibration-sample-password";
+
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${security.hashing.threads:0}") int threads,
+            @Value("${security.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${security.hashing.max-wait-ms:5000}") long maxWaitMillis,
+            @Value("${security.hashing.retry-after-seconds:2}") long retryAfterSeconds,
+            @Value("${security.bcrypt.strength:0}") int strength,
+            @Value("${security.bcrypt.target-millis:250}") long targetMillis,
+            @Value("${security.bcrypt.min-strength:10}") int minStrength,
+            @Value("${security.bcrypt.max-strength:14}") int maxStrength) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors(); // 0: CPU sayısı kadar
+        int cost = strength > 0 ? strength : calibrateStrength(targetMillis, minStrength, maxStrength); // 0: donanıma göre ölç
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(cost), poolSize, queueCapacity, maxWaitMillis, retryAfterSeconds);
+    }
+
+    // Hedef gecikmeyi aşmayan en yüksek BCrypt maliyetini bulur. Her adımda süre yaklaşık iki katına çıkar.
+    static int calibrateStrength(long targetMillis, int minStrength, int maxStrength) {
+        int chosen = minStrength;
+        for (int cost = minStrength; cost <= maxStrength; cost++) {
+            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+            encoder.encode(CALIBRATION_SAMPLE); // JIT ısınması
+            long startedAt = System.nanoTime();
+            encoder.encode(CALIBRATION_SAMPLE);
+            long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+            if (elapsedMillis > targetMillis && cost > minStrength) {
+                break;
+            }
+            chosen = cost;
+            if (elapsedMillis * 2 > targetMillis) {
+                break; // Bir sonraki maliyet hedefi aşacak, ölçmeye gerek yok
+            }
+        }
+        logger.info("BCrypt strength calibrated to {} (target {} ms)", chosen, targetMillis);
+        return chosen;
     }
 }
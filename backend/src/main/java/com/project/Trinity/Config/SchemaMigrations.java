@@ -0,0 +1,58 @@
+package com.project.Trinity.Config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// ddl-auto=update kolon tiplerini/kısıtlarını değiştirmez; bunun gerektiği idempotent DDL adımları burada çalışır.
+// Tüm singleton'lar (ddl-auto'yu çalıştıran EntityManagerFactory dahil) oluştuktan sonra, ama web sunucusu
+// istek kabul etmeye başlamadan önce çalışır; ApplicationRunner'dan farklı olarak eski şemaya istek düşmez.
+@Component
+public class SchemaMigrations implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMigrations.class);
+
+    private static final List<String> STATEMENTS = List.of(
+            // AES-GCM başlığı + nonce + etiket eski 60 karakterlik kolona sığmıyor
+            "ALTER TABLE passwords ALTER COLUMN password TYPE VARCHAR(255)",
+            // Şifreli değerler artık secret (bytea) kolonunda; eski metin kolonu taşıma sonrası boş kalır
+            "ALTER TABLE passwords ALTER COLUMN password DROP NOT NULL",
+            // Rollup yalnızca işlenmemiş olayları tarar; kısmi indeks onları küçük tutar
+            "CREATE INDEX IF NOT EXISTS idx_password_view_events_pending ON password_view_events (id) WHERE rolled_up = FALSE",
+            // Yönetici kullanıcı araması önek LIKE kullanır; text_pattern_ops olmadan varsayılan collation'da indeks kullanılamaz
+            "CREATE INDEX IF NOT EXISTS idx_users_username_prefix ON users (lower(username) text_pattern_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_users_email_prefix ON users (lower(email) text_pattern_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_users_phone_prefix ON users (phone text_pattern_ops)",
+            // Sahiplik koşulları created_by'a taşındı; user_id üzerindeki eski indeksler artık kullanılmıyor
+            "DROP INDEX IF EXISTS idx_passwords_user_change_version",
+            "DROP INDEX IF EXISTS idx_passwords_user_status_view_count",
+            // Profil resimleri user_profile_pictures tablosuna taşınır; kopyalama ve kolon silme tek transaction'da
+            "DO $$ BEGIN " +
+            "IF EXISTS (SELECT 1 FROM information_schema.columns WHERE table_name = 'users' AND column_name = 'profile_picture') THEN " +
+            "INSERT INTO user_profile_pictures (user_id, image, updated_at) " +
+            "SELECT id, profile_picture, now() FROM users WHERE profile_picture IS NOT NULL ON CONFLICT (user_id) DO NOTHING; " +
+            "ALTER TABLE users DROP COLUMN profile_picture; " +
+            "END IF; END $$"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SchemaMigrations(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (String statement : STATEMENTS) {
+            try {
+                jdbcTemplate.execute(statement);
+            } catch (Exception e) {
+                logger.warn("Schema migration step failed: {} ({})", statement, e.getMessage());
+            }
+        }
+    }
+}
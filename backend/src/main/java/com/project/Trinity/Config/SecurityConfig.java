@@ -4,10 +4,13 @@ package com.project.Trinity.Config;
 import com.project.Trinity.Filter.JwtAuthenticationFilter;
 import com.project.Trinity.Filter.JwtAuthorizationFilter;
 import com.project.Trinity.Service.RefreshTokenService;
+import com.project.Trinity.Service.SecurityStampService;
 import com.project.Trinity.Service.UserService;
+import jakarta.servlet.DispatcherType;
 import com.project.Trinity.Util.JwtUtil;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -29,12 +32,14 @@ public class SecurityConfig {
     private final UserService userService;//Kullanıcı bilgilerini yüklemek için.
     private final JwtUtil jwtUtil;//JWT oluşturma ve doğrulama için
     private final PasswordEncoder passwordEncoder;//Şifre doğrulama için.
+    private final SecurityStampService securityStampService;//Token stamp'lerinin güncelliğini kontrol etmek için.
 //Bu bağımlılıklar, kimlik doğrulama ve yetkilendirme için gerekli.
     
-    public SecurityConfig(UserService userService, JwtUtil jwtUtil, PasswordEncoder passwordEncoder) {
+    public SecurityConfig(UserService userService, JwtUtil jwtUtil, PasswordEncoder passwordEncoder, SecurityStampService securityStampService) {
         this.userService = userService;
         this.jwtUtil = jwtUtil;
         this.passwordEncoder = passwordEncoder;
+        this.securityStampService = securityStampService;
     }//Constructor injection ile bağımlılıkları enjekte eder.
 
     @Bean
@@ -42,6 +47,7 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userService);//Kullanıcı bilgilerini UserService’ten alır.
         authProvider.setPasswordEncoder(passwordEncoder);//Şifreleri doğrulamak için BCryptPasswordEncoder’ı kullanır.
+        authProvider.setUserDetailsPasswordService(userService);//Eski maliyetli hash'ler başarılı girişte yükseltilir.
         return authProvider;
     }//Kullanıcı adı ve şifreyi veritabanıyla karşılaştırmak için. Spring Security, bu provider’ı login sırasında kullanır.
 
@@ -59,7 +65,7 @@ public class SecurityConfig {
 
     @Bean
     public JwtAuthorizationFilter jwtAuthorizationFilter() {
-        return new JwtAuthorizationFilter(jwtUtil, userService);//Her istekte JWT’yi doğrulamak için. Yetkili endpoint’lere erişimi kontrol eder.
+        return new JwtAuthorizationFilter(jwtUtil, userService, securityStampService);//Her istekte JWT’yi doğrulamak için. Yetkili endpoint’lere erişimi kontrol eder.
     }
 
     @Bean
@@ -69,7 +75,9 @@ public class SecurityConfig {
     .csrf(csrf -> csrf.disable())
     .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
     .authorizeHttpRequests(auth -> auth
+        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll() // SSE gibi async yanıtların devam dispatch'i (ilk istek zaten yetkilendirildi)
         .requestMatchers("/api/auth/register", "/api/auth/login", "/api/auth/refresh-token", "/api/auth/forgot-password", "/api/auth/reset-password","/api/auth/**","/health", "/error").permitAll()
+        .requestMatchers(HttpMethod.GET, "/api/users/*/avatar").permitAll() // Erişim URL'deki içerik hash'iyle (bkz. UserController.getAvatar)
         .requestMatchers("/api/auth/user/**").authenticated()
         .requestMatchers("/api/admin/**").hasAuthority("ADMIN")
         .requestMatchers("/api/protected/admin").hasAuthority("ADMIN")
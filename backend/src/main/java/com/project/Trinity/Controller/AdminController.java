@@ -1,12 +1,20 @@
 package com.project.Trinity.Controller;
 
+import com.project.Trinity.Config.BoundedPasswordEncoder;
 import com.project.Trinity.Repository.PasswordRepository;
 import com.project.Trinity.Repository.PasswordResetTokenRepository;
 import com.project.Trinity.Repository.UserRepository;
 import com.project.Trinity.Service.EmailService;
+import com.project.Trinity.Service.KeyRotationService;
 import com.project.Trinity.Service.PasswordService;
+import com.project.Trinity.Service.PrincipalCache;
 import com.project.Trinity.Service.RefreshTokenService;
 import com.project.Trinity.Service.UserService;
+import com.project.Trinity.Service.VaultEventHub;
+import com.project.Trinity.Service.ViewEventLog;
+import com.project.Trinity.Service.AvatarService;
+import com.project.Trinity.Service.AuditLogWriter;
+import com.project.Trinity.Service.ViewCountBuffer;
 import com.project.Trinity.Util.JwtUtil;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,10 +23,12 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -29,10 +39,29 @@ public class AdminController {
     @Autowired
     private UserService userService;
     private final PasswordRepository passwordRepository;
+    private final PrincipalCache principalCache;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final KeyRotationService keyRotationService;
+    private final ViewCountBuffer viewCountBuffer;
+    private final VaultEventHub vaultEventHub;
+    private final ViewEventLog viewEventLog;
+    private final AvatarService avatarService;
+    private final AuditLogWriter auditLogWriter;
     
     
-    public AdminController(PasswordRepository passwordRepository) {
+    public AdminController(PasswordRepository passwordRepository, PrincipalCache principalCache, BoundedPasswordEncoder passwordEncoder,
+                           KeyRotationService keyRotationService, ViewCountBuffer viewCountBuffer,
+                           VaultEventHub vaultEventHub, ViewEventLog viewEventLog,
+                           AvatarService avatarService, AuditLogWriter auditLogWriter) {
     		this.passwordRepository = passwordRepository;
+    		this.principalCache = principalCache;
+    		this.passwordEncoder = passwordEncoder;
+    		this.keyRotationService = keyRotationService;
+    		this.viewCountBuffer = viewCountBuffer;
+    		this.vaultEventHub = vaultEventHub;
+    		this.viewEventLog = viewEventLog;
+    		this.avatarService = avatarService;
+    		this.auditLogWriter = auditLogWriter;
     }
     
     @GetMapping("/dashboard")
@@ -57,4 +86,29 @@ public class AdminController {
 
         return ResponseEntity.ok(data);
     }
+
+    // Ana anahtar rotasyonunu arka planda başlatır (veri anahtarları yeniden sarılır, eski kayıtlar taşınır)
+    @PostMapping("/key-rotation")
+    public ResponseEntity<Map<String, Object>> startKeyRotation() {
+        return ResponseEntity.accepted().body(keyRotationService.start());
+    }
+
+    @GetMapping("/key-rotation")
+    public ResponseEntity<Map<String, Object>> getKeyRotationStatus() {
+        return ResponseEntity.ok(keyRotationService.status());
+    }
+
+    // Önbellek ve arka plan bileşenlerinin boyutlandırma için istatistikleri
+    @GetMapping("/metrics")
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("principalCache", principalCache.stats());
+        metrics.put("passwordHashing", passwordEncoder.stats());
+        metrics.put("viewCounts", viewCountBuffer.stats());
+        metrics.put("vaultEvents", vaultEventHub.stats());
+        metrics.put("viewEvents", viewEventLog.stats());
+        metrics.put("avatars", avatarService.stats());
+        metrics.put("auditLog", auditLogWriter.stats());
+        return ResponseEntity.ok(metrics);
+    }
 }
\ No newline at end of file
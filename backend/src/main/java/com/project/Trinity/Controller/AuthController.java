@@ -2,14 +2,13 @@
 package com.project.Trinity.Controller;
 
 import com.project.Trinity.Service.RefreshTokenService;
-import com.project.Trinity.Entity.Password;
 import com.project.Trinity.Entity.PasswordResetToken;
 import com.project.Trinity.Entity.User;
-import com.project.Trinity.Repository.PasswordRepository;
 import com.project.Trinity.Repository.PasswordResetTokenRepository;
 import com.project.Trinity.Repository.UserRepository;
 import com.project.Trinity.Service.EmailService;
 import com.project.Trinity.Service.InvalidRefreshTokenException;
+import com.project.Trinity.Service.PasswordHashingRejectedException;
 import com.project.Trinity.Service.PasswordService;
 import com.project.Trinity.Service.UserService;
 import com.project.Trinity.Service.UsernameAlreadyExistsException;
@@ -55,13 +54,12 @@ public class AuthController {//Kullanıcı kaydı, girişi ve refresh token işl
     private final UserRepository userRepository;
     private final PasswordResetTokenRepository tokenRepository;
     private final EmailService emailService;
-    private final PasswordRepository passwordRepository;
     private final PasswordService passwordService; // Yeni bağımlılık
 
     public AuthController(UserService userService, RefreshTokenService refreshTokenService,
                           AuthenticationManager authenticationManager, JwtUtil jwtUtil, UserRepository userRepository,
                           PasswordResetTokenRepository tokenRepository, EmailService emailService,
-                          PasswordRepository passwordRepository, PasswordService passwordService) {
+                          PasswordService passwordService) {
         this.userService = userService;
         this.refreshTokenService = refreshTokenService;
         this.authenticationManager = authenticationManager;
@@ -69,7 +67,6 @@ public class AuthController {//Kullanıcı kaydı, girişi ve refresh token işl
         this.userRepository = userRepository;
         this.tokenRepository = tokenRepository;
         this.emailService = emailService;
-        this.passwordRepository = passwordRepository;
         this.passwordService = passwordService;
     }
     @PostMapping("/register")
@@ -85,6 +82,8 @@ public class AuthController {//Kullanıcı kaydı, girişi ve refresh token işl
             return new ResponseEntity<>("Kullanıcı başarıyla kaydedildi", HttpStatus.CREATED);
         } catch (UsernameAlreadyExistsException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (PasswordHashingRejectedException e) {
+            throw e; // GlobalExceptionHandler 503 + Retry-After döner
         } catch (Exception e) {
             return new ResponseEntity<>("Kayıt başarısız: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -103,6 +102,9 @@ public class AuthController {//Kullanıcı kaydı, girişi ve refresh token işl
             tokens.put("refreshToken", refreshToken);
             return ResponseEntity.ok(tokens);
         } catch (AuthenticationException e) {
+            if (e.getCause() instanceof PasswordHashingRejectedException rejected) {
+                throw rejected; // Bilinmeyen kullanıcıdaki sahte karşılaştırma da reddedilebilir: 401 değil 503 + Retry-After
+            }
             return new ResponseEntity<>(Map.of("error", "Kimlik doğrulama başarısız"), HttpStatus.UNAUTHORIZED);
         }
     }
@@ -153,20 +155,10 @@ public class AuthController {//Kullanıcı kaydı, girişi ve refresh token işl
 
         try {
             logger.info("Şifre alma isteği alındı, ID: {}", id);
-            Password password = passwordRepository.findById(id)
-                    .orElseThrow(() -> new IllegalArgumentException("Şifre bulunamadı."));
-            logger.info("Şifre bulundu, ID: {}, Kullanıcı: {}", id, password.getUser().getUsername());
-
-            User user = password.getUser();
-            if (!user.getUsername().equals(authentication.getName())) {
-                logger.warn("Kullanıcı {} şifreye erişim izni yok, ID: {}", authentication.getName(), id);
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Bu şifreye erişim izniniz yok."));
-            }
+            User currentUser = (User) authentication.getPrincipal();
 
-            // Görüntülenme sayısını artır
-            passwordService.incrementViewCount(id);
-
-            String decryptedPassword = passwordService.getDecryptedPassword(id);
+            // Sahiplik kontrolü, görüntülenme kaydı ve çözme tek transaction'da
+            String decryptedPassword = passwordService.revealPassword(id, currentUser.getId());
             logger.info("Şifre JSON olarak döndürülüyor, ID: {}, Değer: [GİZLENDİ]", id);
 
             Map<String, String> responseBody = new HashMap<>();
@@ -189,7 +181,8 @@ public class AuthController {//Kullanıcı kaydı, girişi ve refresh token işl
         }
 
         try {
-            Map<String, Long> trend = userService.getPasswordViewTrend(authentication.getName());
+            User currentUser = (User) authentication.getPrincipal();
+            Map<String, Long> trend = userService.getPasswordViewTrend(currentUser.getId());
             return ResponseEntity.ok(trend);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Bir hata oluştu."));
@@ -207,14 +200,9 @@ public class AuthController {//Kullanıcı kaydı, girişi ve refresh token işl
         }
 
         try {
-            Password password = passwordRepository.findById(id)
-                    .orElseThrow(() -> new IllegalArgumentException("Şifre bulunamadı."));
-            if (!password.getUser().getUsername().equals(authentication.getName())) {
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Bu şifreye erişim izniniz yok."));
-            }
-
+            User currentUser = (User) authentication.getPrincipal();
             boolean isFeatured = requestBody.getOrDefault("isFeatured", false);
-            passwordService.toggleFeatured(id, isFeatured);
+            passwordService.toggleFeatured(id, currentUser.getId(), isFeatured); // Sahiplik sorguda (FK id) kontrol edilir
 
             return ResponseEntity.ok("Öne çıkarma durumu güncellendi.");
         } catch (IllegalArgumentException e) {
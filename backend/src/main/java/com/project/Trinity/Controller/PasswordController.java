@@ -4,19 +4,40 @@ import com.project.Trinity.Entity.Password;
 import com.project.Trinity.Entity.Status;
 import com.project.Trinity.Entity.User;
 import com.project.Trinity.Service.PasswordService;
+import com.project.Trinity.Service.VaultEventHub;
+import com.project.Trinity.Service.VaultExportService;
+import com.project.Trinity.Service.VaultImportService;
+import com.project.Trinity.Service.VaultVersionService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import jakarta.servlet.http.HttpServletResponse;
+import com.project.Trinity.DTO.BulkPasswordResult;
+import com.project.Trinity.DTO.ImportResult;
+import com.project.Trinity.DTO.PasswordChanges;
 import com.project.Trinity.DTO.PasswordResponse;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @RestController
@@ -25,9 +46,21 @@ import java.util.stream.Collectors;
 public class PasswordController {
 
     private final PasswordService passwordService;
+    private final VaultVersionService vaultVersionService;
+    private final VaultEventHub vaultEventHub;
+    private final VaultExportService vaultExportService;
+    private final VaultImportService vaultImportService;
+    private final int minExportPassphraseLength;
 
-    public PasswordController(PasswordService passwordService) {
+    public PasswordController(PasswordService passwordService, VaultVersionService vaultVersionService, VaultEventHub vaultEventHub,
+                              VaultExportService vaultExportService, VaultImportService vaultImportService,
+                              @Value("${passwords.export.min-passphrase-length:12}") int minExportPassphraseLength) {
         this.passwordService = passwordService;
+        this.vaultVersionService = vaultVersionService;
+        this.vaultEventHub = vaultEventHub;
+        this.vaultExportService = vaultExportService;
+        this.vaultImportService = vaultImportService;
+        this.minExportPassphraseLength = minExportPassphraseLength;
     }
 
     @PostMapping("/passwords")
@@ -44,50 +77,124 @@ public class PasswordController {
         return new ResponseEntity<>(new PasswordResponse(password), HttpStatus.OK);
     }
 
- @GetMapping("/passwords")
-public ResponseEntity<List<PasswordResponse>> getUserPasswords() {
-    List<PasswordResponse> passwords = passwordService.getUserPasswordsAsResponse();
-    return ResponseEntity.ok(passwords);
-}
+    // Varsayılan: imleçli sayfa (sort=id|title|lastUsed|viewCount). unpaged=true eski düz liste yanıtını döner.
+    @GetMapping("/passwords")
+    public ResponseEntity<?> getUserPasswords(@RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) String sort,
+                                              @RequestParam(required = false) Integer size,
+                                              @RequestParam(defaultValue = "false") boolean unpaged,
+                                              WebRequest webRequest) {
+        if (unpaged) {
+            return conditional(webRequest, passwordService::getUserPasswordsAsResponse);
+        }
+        return conditional(webRequest, () -> passwordService.getUserPasswordsPage(null, sort, cursor, size));
+    }
+
+    // Canlı kasa bildirimleri (SSE): {id, operation, version}. Kopan istemci /passwords/changes ile eksiklerini alır.
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToVaultEvents(HttpServletResponse response) {
+        User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        response.setHeader("X-Accel-Buffering", "no"); // Ters proxy'nin olayları tamponlamaması için
+        return vaultEventHub.subscribe(currentUser.getId());
+    }
+
+    // Kasa dışa aktarma (format=json|csv). Parola URL'de değil X-Export-Passphrase başlığında gelir (loglara düşmesin);
+    // verilirse çıktı parola ile AES-GCM şifrelenir. Yanıt gruplar halinde akar, kasa bellekte toplanmaz.
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportVault(@RequestParam(required = false) String format,
+                                                             @RequestHeader(name = "X-Export-Passphrase", required = false) String passphrase) {
+        User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        Long userId = currentUser.getId(); // Gövde async thread'de yazılır; kullanıcı burada alınır
+        VaultExportService.Format exportFormat = VaultExportService.parseFormat(format);
+        if (passphrase != null && passphrase.length() < minExportPassphraseLength) {
+            throw new IllegalArgumentException("Dışa aktarma parolası en az " + minExportPassphraseLength + " karakter olmalı");
+        }
+        char[] secret = passphrase != null ? passphrase.toCharArray() : null;
+
+        String extension = exportFormat == VaultExportService.Format.CSV ? "csv" : "json";
+        MediaType contentType = exportFormat == VaultExportService.Format.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_JSON;
+        if (secret != null) {
+            extension += ".enc";
+            contentType = MediaType.APPLICATION_OCTET_STREAM;
+        }
+        StreamingResponseBody body = out -> vaultExportService.export(userId, exportFormat, secret, out);
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("trinity-vault." + extension).build().toString())
+                .cacheControl(CacheControl.noStore())
+                .body(body);
+    }
+
+    // Diğer parola yöneticilerinden içe aktarma (CSV ya da JSON; format verilmezse dosya adından anlaşılır).
+    // Kategorisi eşleşmeyen kayıtlar categoryId'ye yazılır; hatalı satırlar yanıtta satır numarasıyla döner.
+    @PostMapping(path = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportResult> importVault(@RequestParam("file") MultipartFile file,
+                                                    @RequestParam(required = false) String format,
+                                                    @RequestParam(required = false) Long categoryId) throws IOException {
+        User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("Dosya boş");
+        }
+        VaultImportService.Format importFormat = VaultImportService.parseFormat(format, file.getOriginalFilename());
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(vaultImportService.importVault(currentUser.getId(), importFormat, in, categoryId));
+        }
+    }
+
+    // Çok cihazlı istemciler için delta senkronizasyonu: since'ten sonraki değişiklikler + yeni sürüm
+    @GetMapping("/passwords/changes")
+    public ResponseEntity<PasswordChanges> getPasswordChanges(@RequestParam(required = false) Long since) {
+        return ResponseEntity.ok(passwordService.getChangesSince(since));
+    }
 
     @GetMapping("/passwords/by-category")
-    public ResponseEntity<List<PasswordResponse>> getPasswordsByCategory(@RequestParam String category) {
-        List<PasswordResponse> passwords = passwordService.getPasswordsByCategory(category)
-                .stream()
-                .map(PasswordResponse::new)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(passwords);
+    public ResponseEntity<?> getPasswordsByCategory(@RequestParam String category,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) String sort,
+                                                    @RequestParam(required = false) Integer size,
+                                                    @RequestParam(defaultValue = "false") boolean unpaged,
+                                                    WebRequest webRequest) {
+        if (unpaged) {
+            return conditional(webRequest, () -> passwordService.getPasswordsByCategory(category));
+        }
+        return conditional(webRequest, () -> passwordService.getUserPasswordsPage(category, sort, cursor, size));
     }
 
     @PutMapping("/passwords/{id}/toggle-featured")
     public ResponseEntity<PasswordResponse> toggleFeatured(@PathVariable Long id, @RequestBody Map<String, Boolean> request) {
         User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         boolean isFeatured = request.get("isFeatured");
-        Password password = passwordService.toggleFeatured(id, isFeatured);
-        if (!password.getCreatedBy().getId().equals(currentUser.getId())) {
-            throw new IllegalArgumentException("Bu şifre size ait değil.");
-        }
+        Password password = passwordService.toggleFeatured(id, currentUser.getId(), isFeatured);
         return ResponseEntity.ok(new PasswordResponse(password));
     }
 
     @GetMapping("/featured-passwords")
-    public ResponseEntity<List<PasswordResponse>> getFeaturedPasswords() {
+    public ResponseEntity<?> getFeaturedPasswords(WebRequest webRequest) {
         User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        List<PasswordResponse> featuredPasswords = passwordService.getFeaturedPasswordsByUser(currentUser)
+        return conditional(webRequest, () -> passwordService.getFeaturedPasswordsByUser(currentUser)
                 .stream()
                 .map(PasswordResponse::new)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(featuredPasswords);
+                .collect(Collectors.toList()));
     }
 
     @GetMapping("/most-viewed-passwords")
-    public ResponseEntity<List<PasswordResponse>> getMostViewedPasswords() {
+    public ResponseEntity<?> getMostViewedPasswords(WebRequest webRequest) {
         User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        List<PasswordResponse> mostViewedPasswords = passwordService.getMostViewedPasswordsByUser(currentUser, 5)
-                .stream()
-                .map(PasswordResponse::new)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(mostViewedPasswords);
+        return conditional(webRequest, () -> passwordService.getMostViewedPasswordsByUser(currentUser, 5));
+    }
+
+    // Kasa sürümünden türetilen ETag eşleşirse 304 döner; passwords tablosuna hiç gidilmez.
+    // Sürüm veriden önce okunur, böylece yanıt hiçbir zaman etiketinden eski olmaz.
+    private ResponseEntity<?> conditional(WebRequest webRequest, Supplier<?> body) {
+        User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        String etag = vaultVersionService.etag(currentUser.getId());
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate(); // Tarayıcı saklar ama her seferinde doğrular
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(body.get());
     }
 
     @PutMapping("/passwords/{id}")
@@ -104,12 +211,35 @@ public ResponseEntity<List<PasswordResponse>> getUserPasswords() {
         return ResponseEntity.ok(new PasswordResponse(password));
     }
     
+    // Toplu kategori taşıma / öne çıkarma / pasif etme; id başına UPDATED veya NOT_FOUND döner
+    @PostMapping("/passwords/bulk")
+    public ResponseEntity<BulkPasswordResult> bulkUpdate(@Valid @RequestBody BulkRequest request) {
+        BulkPasswordResult result = passwordService.bulkUpdate(
+                request.getIds(),
+                PasswordService.BulkOperation.valueOf(request.getOperation()),
+                request.getCategoryId(),
+                request.getIsFeatured()
+        );
+        return ResponseEntity.ok(result);
+    }
+
     @DeleteMapping("/passwords/{id}")
     public ResponseEntity<Void> deletePassword(@PathVariable Long id) {
         passwordService.deletePassword(id);
         return ResponseEntity.noContent().build();
     }
 
+    @Data
+    static class BulkRequest {
+        @jakarta.validation.constraints.NotEmpty(message = "En az bir şifre seçilmelidir")
+        private List<Long> ids;
+        @jakarta.validation.constraints.NotNull(message = "İşlem zorunludur")
+        @Pattern(regexp = "MOVE_CATEGORY|SET_FEATURED|DEACTIVATE", message = "İşlem MOVE_CATEGORY, SET_FEATURED veya DEACTIVATE olabilir")
+        private String operation;
+        private Long categoryId;   // MOVE_CATEGORY için
+        private Boolean isFeatured; // SET_FEATURED için
+    }
+
     @Data
     @EqualsAndHashCode(callSuper = false)
     static class ToggleFeaturedRequest {
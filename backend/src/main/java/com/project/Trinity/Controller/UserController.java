@@ -3,22 +3,27 @@ package com.project.Trinity.Controller;
 import com.project.Trinity.Entity.User;
 import com.project.Trinity.Entity.Status;
 import com.project.Trinity.Repository.UserRepository;
+import com.project.Trinity.DTO.AvatarImage;
+import com.project.Trinity.Service.AvatarService;
+import com.project.Trinity.Service.PasswordHashingRejectedException;
 import com.project.Trinity.Service.UserService;
 import com.project.Trinity.DTO.UserResponse;
 import jakarta.validation.Valid;
 import lombok.Data;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.util.Base64;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api")
@@ -27,10 +32,12 @@ public class UserController {
 
     private final UserRepository userRepository;
     private final UserService userService;
+    private final AvatarService avatarService;
 
-    public UserController(UserRepository userRepository, UserService userService) {
+    public UserController(UserRepository userRepository, UserService userService, AvatarService avatarService) {
         this.userRepository = userRepository;
         this.userService = userService;
+        this.avatarService = avatarService;
     }
 
     @GetMapping("/user/me")
@@ -45,9 +52,7 @@ public class UserController {
 
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Kullanıcı bulunamadı: " + username));
-        String profilePictureBase64 = user.getProfilePicture() != null 
-                ? Base64.getEncoder().encodeToString(user.getProfilePicture()) 
-                : null;
+        String avatarHash = avatarService.hash(user.getId()).orElse(null);
         UserInfoResponse response = new UserInfoResponse(
                 user.getId(),
                 user.getUsername(),
@@ -55,28 +60,24 @@ public class UserController {
                 user.getPhone(),
                 role,
                 user.getStatus() != null ? user.getStatus().toString() : "ACTIVE",
-                profilePictureBase64
+                avatarHash
         );
         return ResponseEntity.ok(response);
     }
 
 
+    // Varsayılan: id sıralı imleçli sayfa, q ile kullanıcı adı / e-posta / telefon önek araması.
+    // unpaged=true eski düz liste yanıtını döner.
     @GetMapping("/admin/users")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<UserInfoResponse>> getAllUsers() {
-        List<User> users = userRepository.findAll();
-        List<UserInfoResponse> userResponses = users.stream()
-                .map(user -> new UserInfoResponse(
-                        user.getId(),
-                        user.getUsername(),
-                        user.getEmail(),
-                        user.getPhone(),
-                        user.getRole().name(),
-                        user.getStatus() != null ? user.getStatus().toString() : "ACTIVE",
-                        user.getProfilePicture() != null ? Base64.getEncoder().encodeToString(user.getProfilePicture()) : null
-                ))
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(userResponses);
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) String q,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer size,
+                                         @RequestParam(defaultValue = "false") boolean unpaged) {
+        if (unpaged) {
+            return ResponseEntity.ok(userService.getAllUserSummaries());
+        }
+        return ResponseEntity.ok(userService.getUsersPage(q, cursor, size));
     }
 
     @PutMapping("/admin/users/{id}")
@@ -93,9 +94,7 @@ public class UserController {
         );
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UsernameNotFoundException("Kullanıcı bulunamadı: " + id));
-        String profilePictureBase64 = user.getProfilePicture() != null 
-                ? Base64.getEncoder().encodeToString(user.getProfilePicture()) 
-                : null;
+        String avatarHash = avatarService.hash(user.getId()).orElse(null);
         UserInfoResponse response = new UserInfoResponse(
                 user.getId(),
                 userResponse.getUsername(),
@@ -103,7 +102,7 @@ public class UserController {
                 userResponse.getPhone(),
                 user.getRole().name(),
                 request.getStatus() != null ? request.getStatus() : user.getStatus().toString(),
-                		profilePictureBase64
+                		avatarHash
         );
         return ResponseEntity.ok(response);
     }
@@ -142,9 +141,7 @@ public class UserController {
             User user = userRepository.findByUsername(userResponse.getUsername())
                 .orElseThrow(() -> new UsernameNotFoundException("Kullanıcı bulunamadı: " + userResponse.getUsername()));
 
-            String profilePictureBase64 = user.getProfilePicture() != null
-                ? Base64.getEncoder().encodeToString(user.getProfilePicture())
-                : null;
+            String avatarHash = avatarService.hash(user.getId()).orElse(null);
 
             UserInfoResponse response = new UserInfoResponse(
                 user.getId(),
@@ -153,15 +150,46 @@ public class UserController {
                 userResponse.getPhone(),
                 user.getRole().name(),
                 user.getStatus().toString(),
-                profilePictureBase64
+                avatarHash
             );
 
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingRejectedException e) {
+            throw e; // GlobalExceptionHandler 503 + Retry-After döner
         } catch (Exception e) {
             // Hata durumunda detaylı mesaj döndür
             return ResponseEntity.badRequest().build();
         }
     }
+    // Ham resim baytları. URL içerik hash'ini (v) taşır, bu yüzden yanıt değişmez ve uzun süre önbelleklenebilir;
+    // <img> etiketi Authorization başlığı gönderemediği için hash, kimlik doğrulama yerine erişim anahtarı olarak kullanılır.
+    @GetMapping("/users/{id}/avatar")
+    @PreAuthorize("permitAll()")
+    public ResponseEntity<byte[]> getAvatar(@PathVariable Long id,
+                                            @RequestParam(name = "v") String version,
+                                            @RequestParam(required = false) String size,
+                                            WebRequest webRequest) {
+        AvatarService.Size avatarSize = AvatarService.parseSize(size);
+        String hash = avatarService.hash(id).orElse(null);
+        if (hash == null || !hash.equals(version)) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = "\"" + hash + (avatarSize == AvatarService.Size.ORIGINAL ? "" : "-" + avatarSize.name().toLowerCase()) + "\"";
+        CacheControl cacheControl = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+        }
+        AvatarImage image = avatarService.load(id, avatarSize).orElse(null);
+        if (image == null || !hash.equals(image.getHash())) {
+            return ResponseEntity.notFound().build(); // Bu arada yeni resim yüklendi ya da silindi
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .contentType(MediaType.parseMediaType(image.getContentType()))
+                .body(image.getData());
+    }
+
     @PostMapping("/user/upload-profile-picture")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<String> uploadProfilePicture(@RequestParam("file") MultipartFile file, Authentication authentication) throws IOException {
@@ -187,9 +215,7 @@ public class UserController {
                 user.getRole().name() // Mevcut rolü koru
         );
 
-        String profilePictureBase64 = user.getProfilePicture() != null 
-                ? Base64.getEncoder().encodeToString(user.getProfilePicture()) 
-                : null;
+        String avatarHash = avatarService.hash(user.getId()).orElse(null);
         UserInfoResponse response = new UserInfoResponse(
                 user.getId(),
                 userResponse.getUsername(),
@@ -197,7 +223,7 @@ public class UserController {
                 userResponse.getPhone(),
                 user.getRole().name(),
                 user.getStatus().toString(),
-                profilePictureBase64
+                avatarHash
         );
         return ResponseEntity.ok(response);
     }
@@ -220,16 +246,18 @@ public class UserController {
         private String phone;
         private String role;
         private String status;
-        private String profilePicture;
+        private String avatarUrl;  // Resim yoksa null; size=small|medium eklenebilir
+        private String avatarHash;
 
-        public UserInfoResponse(Long id, String username, String email, String phone, String role, String status,String profilePicture) {
+        public UserInfoResponse(Long id, String username, String email, String phone, String role, String status, String avatarHash) {
             this.id = id;
             this.username = username;
             this.email = email;
             this.phone = phone;
             this.role = role;
             this.status = status;
-            this.profilePicture = profilePicture;
+            this.avatarHash = avatarHash;
+            this.avatarUrl = AvatarService.url(id, avatarHash);
         }
     }
 
@@ -0,0 +1,17 @@
+package com.project.Trinity.DTO;
+
+import lombok.Getter;
+
+// Avatar yanıtı için tek boyutun baytları; diğer boyutlar sorguya girmez.
+@Getter
+public class AvatarImage {
+    private final byte[] data;       // Küçük resim henüz üretilmediyse null
+    private final String contentType;
+    private final String hash;
+
+    public AvatarImage(byte[] data, String contentType, String hash) {
+        this.data = data;
+        this.contentType = contentType;
+        this.hash = hash;
+    }
+}
@@ -0,0 +1,18 @@
+package com.project.Trinity.DTO;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkPasswordResult {
+    private final long version;          // İşlem sonrası kasa sürümü (hiçbir kayıt değişmediyse mevcut sürüm)
+    private final int updated;
+    private final List<Item> results;    // İstekteki sırayla, id başına sonuç
+
+    @Data
+    public static class Item {
+        private final Long id;
+        private final String result;     // UPDATED | NOT_FOUND (yok, pasif ya da başka kullanıcıya ait)
+    }
+}
@@ -0,0 +1,21 @@
+package com.project.Trinity.DTO;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ImportResult {
+    private int imported;
+    private int failed;
+    private boolean complete = true;              // false: dosya sonuna kadar okunamadı, önceki gruplar kaydedildi
+    private long version;                         // Son grubun kasa sürümü (delta senkronizasyonu için)
+    private List<RowError> errors = new ArrayList<>(); // En fazla passwords.import.max-reported-errors kadar
+
+    @Data
+    public static class RowError {
+        private final long row;                   // Dosyadaki kayıt sırası (başlık satırı hariç, 1'den başlar)
+        private final String message;
+    }
+}
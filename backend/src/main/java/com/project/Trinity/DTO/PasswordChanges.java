@@ -0,0 +1,13 @@
+package com.project.Trinity.DTO;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class PasswordChanges {
+    private final long version;                  // İstemcinin bir sonraki istekte since olarak göndereceği değer
+    private final boolean full;                  // true: anlık görüntü, istemci yerel kopyasını bununla değiştirmeli
+    private final List<PasswordResponse> changes; // Eklenen/güncellenen kayıtlar
+    private final List<Long> deletedIds;         // Pasif edilen kayıtlar (tombstone)
+}
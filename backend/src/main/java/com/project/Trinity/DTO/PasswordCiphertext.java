@@ -0,0 +1,15 @@
+package com.project.Trinity.DTO;
+
+import lombok.Getter;
+
+// Şifre gösterimi için yalnızca şifreli değer; entity ve kullanıcı join'i yüklenmez.
+@Getter
+public class PasswordCiphertext {
+    private final String legacyText; // Henüz bytea'ya taşınmamış eski Base64 değer
+    private final byte[] secret;
+
+    public PasswordCiphertext(String legacyText, byte[] secret) {
+        this.legacyText = legacyText;
+        this.secret = secret;
+    }
+}
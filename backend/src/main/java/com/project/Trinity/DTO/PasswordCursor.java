@@ -0,0 +1,58 @@
+package com.project.Trinity.DTO;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// Keyset imleci: son satırın sıralama değeri + id. İstemciye opak Base64 metin olarak verilir.
+@Getter
+public class PasswordCursor {
+    private final PasswordSort sort;
+    private final long id;
+    private final Object value; // ID için null; LAST_USED için null = hiç kullanılmamış kayıtlar bölümü
+
+    public PasswordCursor(PasswordSort sort, long id, Object value) {
+        this.sort = sort;
+        this.id = id;
+        this.value = value;
+    }
+
+    public static PasswordCursor after(PasswordSort sort, PasswordResponse last) {
+        Object value = switch (sort) {
+            case ID -> null;
+            case TITLE -> last.getTitle();
+            case LAST_USED -> last.getLastUsed();
+            case VIEW_COUNT -> last.getViewCount();
+        };
+        return new PasswordCursor(sort, last.getId(), value);
+    }
+
+    public String encode() {
+        String raw = sort.name() + "|" + id + "|" + (value != null ? value : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PasswordCursor decode(String cursor, PasswordSort expectedSort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            PasswordSort sort = PasswordSort.valueOf(parts[0]);
+            if (sort != expectedSort) {
+                throw new IllegalArgumentException("İmleç farklı bir sıralamaya ait");
+            }
+            long id = Long.parseLong(parts[1]);
+            String value = parts[2];
+            Object parsed = switch (sort) {
+                case ID -> null;
+                case TITLE -> value;
+                case LAST_USED -> value.isEmpty() ? null : LocalDateTime.parse(value);
+                case VIEW_COUNT -> Integer.parseInt(value);
+            };
+            return new PasswordCursor(sort, id, parsed);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException | java.time.format.DateTimeParseException e) {
+            throw new IllegalArgumentException("Geçersiz imleç", e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.project.Trinity.DTO;
+
+import lombok.Getter;
+
+// Dışa aktarma için tek satır: listeleme alanları + şifreli değer. Entity ve ilişkileri yüklenmez.
+@Getter
+public class PasswordExportRow {
+    private final Long id;
+    private final String categoryName;
+    private final String title;
+    private final String username;
+    private final String description;
+    private final boolean isFeatured;
+    private final String legacyText; // Henüz bytea'ya taşınmamış eski Base64 değer
+    private final byte[] secret;
+
+    public PasswordExportRow(Long id, String categoryName, String title, String username, String description,
+                             boolean isFeatured, String legacyText, byte[] secret) {
+        this.id = id;
+        this.categoryName = categoryName;
+        this.title = title;
+        this.username = username;
+        this.description = description;
+        this.isFeatured = isFeatured;
+        this.legacyText = legacyText;
+        this.secret = secret;
+    }
+}
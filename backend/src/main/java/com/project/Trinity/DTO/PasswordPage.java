@@ -0,0 +1,12 @@
+package com.project.Trinity.DTO;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class PasswordPage {
+    private final List<PasswordResponse> items;
+    private final String nextCursor; // Son sayfada null
+    private final boolean hasMore;
+}
@@ -1,8 +1,11 @@
 package com.project.Trinity.DTO;
 
 import com.project.Trinity.Entity.Password;
+import com.project.Trinity.Entity.Status;
 import lombok.Data;
 
+import java.time.LocalDateTime;
+
 @Data
 public class PasswordResponse {
     private Long id;
@@ -13,6 +16,8 @@ public class PasswordResponse {
     private String description;
     private String status;
     private boolean isFeatured;
+    private LocalDateTime lastUsed;
+    private int viewCount;
 
     public PasswordResponse(Password password) {
         this.id = password.getId();
@@ -23,5 +28,30 @@ public class PasswordResponse {
         this.description = password.getDescription();
         this.status = password.getStatus().getDisplayName();
         this.isFeatured = password.getIsFeatured();
+        this.lastUsed = password.getLastUsed();
+        this.viewCount = password.getViewCount();
+    }
+
+    // PasswordRepository listeleme sorgularının constructor expression'ı (entity ve kategori proxy'si yüklenmez)
+    public PasswordResponse(Long id, Long categoryId, String categoryName, String title, String username,
+                            String description, Status status, boolean isFeatured, LocalDateTime lastUsed, int viewCount) {
+        this.id = id;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.title = title;
+        this.username = username;
+        this.description = description;
+        this.status = status.getDisplayName();
+        this.isFeatured = isFeatured;
+        this.lastUsed = lastUsed;
+        this.viewCount = viewCount;
+    }
+
+    // Görüntülenme sayısı güncellenmiş kopya (bkz. MostViewedLeaderboard)
+    public PasswordResponse withViews(int viewCount, LocalDateTime lastUsed) {
+        PasswordResponse copy = new PasswordResponse(id, categoryId, categoryName, title, username, description,
+                Status.ACTIVE, isFeatured, lastUsed, viewCount);
+        copy.status = status;
+        return copy;
     }
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.project.Trinity.DTO;
+
+import java.util.Arrays;
+
+// Kasa listesi sıralama seçenekleri. Her sıralama id ile tamamlanır, böylece keyset imleci tekildir.
+public enum PasswordSort {
+    ID("id", "p.id", true),
+    TITLE("title", "p.title", true),
+    LAST_USED("lastUsed", "p.lastUsed", false), // En son kullanılan önce, hiç kullanılmayanlar sonda
+    VIEW_COUNT("viewCount", "p.viewCount", false);
+
+    private final String param;
+    private final String path;
+    private final boolean ascending;
+
+    PasswordSort(String param, String path, boolean ascending) {
+        this.param = param;
+        this.path = path;
+        this.ascending = ascending;
+    }
+
+    public String getParam() { return param; }
+    public String getPath() { return path; }
+    public boolean isAscending() { return ascending; }
+
+    public static PasswordSort fromParam(String param) {
+        if (param == null || param.isBlank()) {
+            return ID;
+        }
+        return Arrays.stream(values())
+                .filter(sort -> sort.param.equalsIgnoreCase(param))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Geçersiz sıralama: " + param));
+    }
+}
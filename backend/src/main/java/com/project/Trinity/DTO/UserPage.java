@@ -0,0 +1,12 @@
+package com.project.Trinity.DTO;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class UserPage {
+    private final List<UserSummary> items;
+    private final String nextCursor; // Son sayfada null
+    private final boolean hasMore;
+}
@@ -0,0 +1,42 @@
+package com.project.Trinity.DTO;
+
+import com.project.Trinity.Entity.Role;
+import com.project.Trinity.Entity.Status;
+import com.project.Trinity.Entity.User;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// Kimlik doğrulama için gereken alanların hafif kopyası (profil resmi gibi büyük kolonlar olmadan).
+@Getter
+public class UserPrincipal {
+    private final Long id;
+    private final String username;
+    private final String password;
+    private final Role role;
+    private final Status status;
+    private final LocalDateTime frozenAt;
+    private final long securityStamp;
+
+    public UserPrincipal(Long id, String username, String password, Role role, Status status, LocalDateTime frozenAt, long securityStamp) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
+        this.role = role;
+        this.status = status;
+        this.frozenAt = frozenAt;
+        this.securityStamp = securityStamp;
+    }
+
+    public User toUser() {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setPassword(password);
+        user.setRole(role);
+        user.setStatus(status);
+        user.setFrozenAt(frozenAt);
+        user.setSecurityStamp(securityStamp);
+        return user;
+    }
+}
@@ -0,0 +1,31 @@
+package com.project.Trinity.DTO;
+
+import com.project.Trinity.Entity.Role;
+import com.project.Trinity.Entity.Status;
+import com.project.Trinity.Service.AvatarService;
+import lombok.Getter;
+
+// Yönetici kullanıcı listesi satırı: JPQL constructor projeksiyonu, entity ve resim baytı yüklenmez.
+// JSON alanları UserController.UserInfoResponse ile aynıdır.
+@Getter
+public class UserSummary {
+    private final Long id;
+    private final String username;
+    private final String email;
+    private final String phone;
+    private final String role;
+    private final String status;
+    private final String avatarUrl;
+    private final String avatarHash;
+
+    public UserSummary(Long id, String username, String email, String phone, Role role, Status status, String avatarHash) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.phone = phone;
+        this.role = role != null ? role.name() : null;
+        this.status = status != null ? status.toString() : "ACTIVE";
+        this.avatarHash = avatarHash;
+        this.avatarUrl = AvatarService.url(id, avatarHash);
+    }
+}
@@ -12,7 +12,15 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import com.project.Trinity.Util.EncryptionUtil;
 
 @Entity
-@Table(name = "passwords")
+@Table(name = "passwords", indexes = {
+        // Kasa listesi keyset sayfalama sıraları (bkz. PasswordListingRepositoryImpl)
+        @Index(name = "idx_passwords_created_by_status_id", columnList = "created_by, status, id"),
+        @Index(name = "idx_passwords_created_by_last_used", columnList = "created_by, last_used"),
+        @Index(name = "idx_passwords_created_by_status_title", columnList = "created_by, status, title"),
+        // Delta senkronizasyonu (bkz. PasswordRepository.findListingChangedBetween)
+        @Index(name = "idx_passwords_created_by_change_version", columnList = "created_by, change_version"),
+        @Index(name = "idx_passwords_created_by_status_view_count", columnList = "created_by, status, view_count DESC")
+})
 @Data
 public class Password {
 
@@ -20,7 +28,8 @@ public class Password {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    // LAZY: sorgular bu ilişkiyi kullanmaz; sahiplik created_by üzerinden kontrol edilir
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
     
@@ -40,8 +49,11 @@ public class Password {
     @Column(name = "is_featured", columnDefinition = "boolean default false") // Yeni eklenen alan
     private boolean isFeatured = false;
     
-    @Column(nullable = false, length = 60)
-    private String password; // Bcrypt hash'i saklanacak
+    @Column(length = 255)
+    private String password; // Eski format: Base64 metin. SecretStorageMigration bunları secret kolonuna taşır.
+
+    @Column(name = "secret", columnDefinition = "BYTEA")
+    private byte[] secret; // Sürüm başlıklı ham şifreli veri (bkz. EncryptionUtil)
     
     @Column(length = 500)
     private String description;
@@ -50,6 +62,7 @@ public class Password {
     @Column(nullable = false, columnDefinition = "VARCHAR(20) DEFAULT 'ACTIVE'")
     private Status status = Status.ACTIVE;
 
+    // Tüm sahiplik koşullarının kolonu (indeksler bu kolonda); proxy getId() yükleme yapmaz
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by", nullable = false)
     private User createdBy;
@@ -57,6 +70,9 @@ public class Password {
     
     @Column(name = "view_count", columnDefinition = "integer default 0")
     private int viewCount = 0;
+
+    @Column(name = "change_version", columnDefinition = "bigint default 0")
+    private long changeVersion = 0; // Son değişiklikteki kasa sürümü (users.vault_version)
     
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -76,6 +92,9 @@ public class Password {
     public String getPassword() { return password; }
     public void setPassword(String password) { this.password = password; }
 
+    public byte[] getSecret() { return secret; }
+    public void setSecret(byte[] secret) { this.secret = secret; }
+
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
 
@@ -91,6 +110,9 @@ public class Password {
     public int getViewCount() { return viewCount; }
     public void setViewCount(int viewCount) { this.viewCount = viewCount; }
 
+    public long getChangeVersion() { return changeVersion; }
+    public void setChangeVersion(long changeVersion) { this.changeVersion = changeVersion; }
+
     public boolean getIsFeatured() { return isFeatured; }
     public void setIsFeatured(boolean isFeatured) { this.isFeatured = isFeatured; }
 
@@ -0,0 +1,27 @@
+package com.project.Trinity.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@Entity
+@Table(name = "password_view_daily", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_password_view_daily_user_day", columnNames = {"user_id", "view_date"})
+})
+public class PasswordViewDaily {//Kullanıcı başına günlük görüntülenme toplamı; görüntülenme trendi yalnızca bu tablodan okunur.
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "view_date", nullable = false)
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private long views;
+}
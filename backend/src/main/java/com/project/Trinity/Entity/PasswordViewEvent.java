@@ -0,0 +1,30 @@
+package com.project.Trinity.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "password_view_events", indexes = {
+        @Index(name = "idx_password_view_events_viewed_at", columnList = "viewed_at")
+})
+public class PasswordViewEvent {//Tek bir şifre görüntülenmesi. ViewEventLog toplu yazar, günlük toplamlara işlendikten sonra saklama süresi dolunca silinir.
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "password_id", nullable = false)
+    private Long passwordId;
+
+    @Column(name = "viewed_at", nullable = false)
+    private LocalDateTime viewedAt;
+
+    @Column(name = "rolled_up", nullable = false, columnDefinition = "boolean default false")
+    private boolean rolledUp = false; // password_view_daily'ye eklendi mi
+}
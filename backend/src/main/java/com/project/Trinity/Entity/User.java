@@ -38,12 +38,16 @@ public class User implements UserDetails {
     @Column(columnDefinition = "VARCHAR(20) DEFAULT 'ACTIVE'")
     private Status status = Status.ACTIVE; // Yeni eklenen alan
     
-    @Column(columnDefinition = "BYTEA")
-    private byte[] profilePicture; // Profil resmi için byte dizisi
-
     @Column(name = "frozen_at")
     private LocalDateTime frozenAt;
 
+    @Column(name = "security_stamp", columnDefinition = "bigint default 0")
+    private long securityStamp = 0; // Rol/durum/şifre değişince artırılır, eski access token'lar DB'ye düşer
+
+    // Yalnızca VaultVersionService'in UPDATE sorgusuyla yazılır; entity kaydı eski değeri geri yazamaz
+    @Column(name = "vault_version", columnDefinition = "bigint default 0", insertable = false, updatable = false)
+    private long vaultVersion = 0; // Kasadaki her değişiklikte artar (bkz. VaultVersionService)
+
 
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<PasswordResetToken> passwordResetTokens;
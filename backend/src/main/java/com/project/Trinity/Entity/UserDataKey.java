@@ -0,0 +1,31 @@
+package com.project.Trinity.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "user_data_keys")
+public class UserDataKey {//Kullanıcının şifrelerini şifreleyen veri anahtarı, ana anahtarla sarılmış halde saklanır.
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "wrapped_key", nullable = false, columnDefinition = "BYTEA")
+    private byte[] wrappedKey;
+
+    @Column(name = "master_key_version", nullable = false)
+    private int masterKeyVersion; // Anahtarı saran ana anahtarın sürümü
+
+    @Column(name = "legacy_migrated", columnDefinition = "boolean default false")
+    private boolean legacyMigrated = false; // Ana anahtarla şifrelenmiş eski kayıtlar veri anahtarına taşındı mı
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "rotated_at")
+    private LocalDateTime rotatedAt;
+}
@@ -0,0 +1,35 @@
+package com.project.Trinity.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "user_profile_pictures")
+public class UserProfilePicture {//Profil resmi users tablosundan ayrı tutulur; kullanıcı yüklemeleri (giriş, JWT doğrulama, şifre join'leri) resim baytlarını okumaz.
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false, columnDefinition = "BYTEA")
+    private byte[] image;
+
+    @Column(name = "content_type", length = 50)
+    private String contentType;
+
+    @Column(length = 64)
+    private String hash; // SHA-256 (hex); ETag ve avatar URL'sindeki v parametresi
+
+    // AvatarService arka planda üretir; üretilene kadar null (orijinal resim döner)
+    @Column(name = "thumb_small", columnDefinition = "BYTEA")
+    private byte[] thumbSmall;
+
+    @Column(name = "thumb_medium", columnDefinition = "BYTEA")
+    private byte[] thumbMedium;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -1,6 +1,7 @@
 
 package com.project.Trinity.Filter;
 
+import com.project.Trinity.Service.PasswordHashingRejectedException;
 import com.project.Trinity.Service.RefreshTokenService;
 import com.project.Trinity.Util.JwtUtil;
 import com.project.Trinity.DTO.AuthenticationRequest;
@@ -11,7 +12,9 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
@@ -54,6 +57,18 @@ public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilte
             );
 
             return getAuthenticationManager().authenticate(authenticationToken);
+        } catch (PasswordHashingRejectedException e) {
+            logger.warn("Login rejected, password hashing queue is full");
+            writeBusyResponse(response, e);
+            return null; // Yanıt yazıldı, filtre zinciri burada biter
+        } catch (InternalAuthenticationServiceException e) {
+            // Bilinmeyen kullanıcıda DaoAuthenticationProvider'ın sahte şifre karşılaştırması reddedilirse hata sarılı gelir
+            if (e.getCause() instanceof PasswordHashingRejectedException rejected) {
+                logger.warn("Login rejected, password hashing queue is full");
+                writeBusyResponse(response, rejected);
+                return null;
+            }
+            throw e;
         } catch (IOException e) {
             logger.error("Invalid request format: {}", e.getMessage());
             throw new AuthenticationException("Geçersiz istek formatı", e) {};
@@ -76,6 +91,17 @@ public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilte
         logger.info("Successful authentication for user: {}", userDetails.getUsername());
     }
 
+    private void writeBusyResponse(HttpServletResponse response, PasswordHashingRejectedException e) {
+        try {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+            response.setContentType("application/json");
+            new ObjectMapper().writeValue(response.getOutputStream(), Map.of("error", e.getMessage()));
+        } catch (IOException ioException) {
+            logger.error("Could not write busy response: {}", ioException.getMessage());
+        }
+    }
+
     @Override
     protected void unsuccessfulAuthentication(HttpServletRequest request, HttpServletResponse response, AuthenticationException failed) throws IOException, ServletException {
         response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
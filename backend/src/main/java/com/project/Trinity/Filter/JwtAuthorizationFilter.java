@@ -1,8 +1,13 @@
 
 package com.project.Trinity.Filter;
 
+import com.project.Trinity.Entity.Role;
+import com.project.Trinity.Entity.Status;
+import com.project.Trinity.Entity.User;
+import com.project.Trinity.Service.SecurityStampService;
 import com.project.Trinity.Service.UserService;
 import com.project.Trinity.Util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,10 +30,12 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthorizationFilter.class);
     private final JwtUtil jwtUtil;
     private final UserService userService;
+    private final SecurityStampService securityStampService;
 
-    public JwtAuthorizationFilter(JwtUtil jwtUtil, UserService userService) {
+    public JwtAuthorizationFilter(JwtUtil jwtUtil, UserService userService, SecurityStampService securityStampService) {
         this.jwtUtil = jwtUtil;
         this.userService = userService;
+        this.securityStampService = securityStampService;
     }
     
 
@@ -57,12 +64,17 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
         }
 
         final String jwt = authHeader.substring(7);
-        final String username = jwtUtil.extractUsername(jwt);
+        final Claims claims = jwtUtil.extractAllClaims(jwt); // İmza istek başına tek kez doğrulanır
+        final String username = claims.getSubject();
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userService.loadUserByUsername(username);
+            UserDetails userDetails = principalFromClaims(claims);
+            if (userDetails == null) {
+                // Eski formatta veya stamp'i bayatlamış token: kullanıcıyı veritabanından yükle
+                userDetails = userService.loadUserForToken(username);
+            }
 
-            if (jwtUtil.isTokenValid(jwt, userDetails)) {
+            if (jwtUtil.isTokenValid(claims, userDetails)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -76,4 +88,26 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
             }
         }
         filterChain.doFilter(request, response);
-    }}
+    }
+
+    // Token'daki id/rol/stamp güncelse Authentication'ı doğrudan claim'lerden kurar; değilse null döner.
+    // Stamp kontrolü node'un stamp önbelleğinden yapılır; başka node'daki değişiklik en geç security.stamp-cache.ttl-seconds sonra görülür.
+    private User principalFromClaims(Claims claims) {
+        Number userId = claims.get(JwtUtil.CLAIM_USER_ID, Number.class);
+        Number stamp = claims.get(JwtUtil.CLAIM_SECURITY_STAMP, Number.class);
+        String role = claims.get(JwtUtil.CLAIM_ROLE, String.class);
+        if (userId == null || stamp == null || role == null) {
+            return null;
+        }
+        if (!securityStampService.isCurrent(userId.longValue(), stamp.longValue())) {
+            return null;
+        }
+        User user = new User();
+        user.setId(userId.longValue());
+        user.setUsername(claims.getSubject());
+        user.setRole(Role.valueOf(role));
+        user.setStatus(Status.ACTIVE);
+        user.setSecurityStamp(stamp.longValue());
+        return user;
+    }
+}
@@ -0,0 +1,21 @@
+package com.project.Trinity.Repository;
+
+import com.project.Trinity.Entity.KeyRotationCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface KeyRotationCheckpointRepository extends JpaRepository<KeyRotationCheckpoint, String> {
+
+    // Yeni rotasyonu yalnızca çalışan yoksa başlatır (compare-and-set); 0 dönerse kayıt zaten RUNNING ya da yok
+    @Modifying
+    @Query("UPDATE KeyRotationCheckpoint c SET c.status = 'RUNNING', c.targetMasterVersion = :target, c.lastUserId = 0, " +
+           "c.processedUsers = 0, c.rewrappedKeys = 0, c.reencryptedSecrets = 0, c.failedUsers = 0, c.failedSecrets = 0, " +
+           "c.startedAt = :now, c.updatedAt = :now WHERE c.name = :name AND c.status <> 'RUNNING'")
+    int claim(@Param("name") String name, @Param("target") int target, @Param("now") LocalDateTime now);
+}
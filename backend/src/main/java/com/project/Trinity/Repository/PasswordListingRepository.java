@@ -0,0 +1,16 @@
+package com.project.Trinity.Repository;
+
+import com.project.Trinity.DTO.PasswordCursor;
+import com.project.Trinity.DTO.PasswordResponse;
+import com.project.Trinity.DTO.PasswordSort;
+import com.project.Trinity.Entity.Status;
+
+import java.util.List;
+
+// Sıralamaya göre JPQL'i dinamik kuran keyset sayfalama sorguları (bkz. PasswordListingRepositoryImpl)
+public interface PasswordListingRepository {
+
+    // categoryName null ise kullanıcının tüm kayıtları
+    List<PasswordResponse> findListingPage(Long userId, String categoryName, Status status,
+                                           PasswordSort sort, PasswordCursor after, int limit);
+}
@@ -0,0 +1,74 @@
+package com.project.Trinity.Repository;
+
+import com.project.Trinity.DTO.PasswordCursor;
+import com.project.Trinity.DTO.PasswordResponse;
+import com.project.Trinity.DTO.PasswordSort;
+import com.project.Trinity.Entity.Status;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+
+public class PasswordListingRepositoryImpl implements PasswordListingRepository {
+
+    private static final String SELECT_LISTING =
+            "SELECT new com.project.Trinity.DTO.PasswordResponse(p.id, c.id, c.name, p.title, p.username, p.description, " +
+            "p.status, p.isFeatured, p.lastUsed, p.viewCount) FROM Password p JOIN p.category c ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<PasswordResponse> findListingPage(Long userId, String categoryName, Status status,
+                                                  PasswordSort sort, PasswordCursor after, int limit) {
+        StringBuilder jpql = new StringBuilder(SELECT_LISTING);
+        if (categoryName == null) {
+            jpql.append("WHERE p.createdBy.id = :userId AND p.status = :status");
+        } else {
+            jpql.append("WHERE p.createdBy.id = :userId AND c.name = :categoryName AND p.status = :status");
+        }
+
+        String path = sort.getPath();
+        String next = sort.isAscending() ? ">" : "<";
+        if (after != null) {
+            if (sort == PasswordSort.ID) {
+                jpql.append(" AND p.id > :afterId");
+            } else if (sort == PasswordSort.LAST_USED && after.getValue() == null) {
+                // Kullanılmış kayıtlar bitti, hiç kullanılmamışlar id'ye göre devam eder
+                jpql.append(" AND p.lastUsed IS NULL AND p.id < :afterId");
+            } else {
+                jpql.append(" AND (").append(path).append(' ').append(next).append(" :afterValue OR (")
+                        .append(path).append(" = :afterValue AND p.id ").append(next).append(" :afterId)");
+                if (sort == PasswordSort.LAST_USED) {
+                    jpql.append(" OR p.lastUsed IS NULL");
+                }
+                jpql.append(')');
+            }
+        }
+
+        String direction = sort.isAscending() ? " ASC" : " DESC";
+        if (sort == PasswordSort.ID) {
+            jpql.append(" ORDER BY p.id ASC");
+        } else {
+            jpql.append(" ORDER BY ").append(path).append(direction)
+                    .append(sort == PasswordSort.LAST_USED ? " NULLS LAST" : "")
+                    .append(", p.id").append(direction);
+        }
+
+        TypedQuery<PasswordResponse> query = entityManager.createQuery(jpql.toString(), PasswordResponse.class)
+                .setParameter("userId", userId)
+                .setParameter("status", status)
+                .setMaxResults(limit);
+        if (categoryName != null) {
+            query.setParameter("categoryName", categoryName);
+        }
+        if (after != null) {
+            query.setParameter("afterId", after.getId());
+            if (sort != PasswordSort.ID && after.getValue() != null) {
+                query.setParameter("afterValue", after.getValue());
+            }
+        }
+        return query.getResultList();
+    }
+}
@@ -1,15 +1,23 @@
 package com.project.Trinity.Repository;
 
+import com.project.Trinity.DTO.PasswordCiphertext;
+import com.project.Trinity.DTO.PasswordExportRow;
+import com.project.Trinity.DTO.PasswordResponse;
 import com.project.Trinity.Entity.Password;
 import com.project.Trinity.Entity.Status;
 import com.project.Trinity.Entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface PasswordRepository extends JpaRepository<Password, Long> {
+public interface PasswordRepository extends JpaRepository<Password, Long>, PasswordListingRepository {
     List<Password> findByCreatedByAndStatus(User createdBy, Status status);
 
     List<Password> findByUserAndCategoryName(User user, String categoryName);
@@ -17,18 +25,92 @@ public interface PasswordRepository extends JpaRepository<Password, Long> {
     List<Password> findByUser(User user);
 
     
-    @Query("SELECT DISTINCT p.category.name FROM Password p WHERE p.user = :user AND p.status = 'ACTIVE'")
+    @Query("SELECT DISTINCT p.category.name FROM Password p WHERE p.createdBy = :user AND p.status = 'ACTIVE'")
     List<String> findDistinctCategoryByUser(@Param("user") User user);
 
     // Yeni metod: Kullanıcı ve kategori adına göre yalnızca ACTIVE şifreleri getir
-    @Query("SELECT p FROM Password p WHERE p.user = :user AND p.category.name = :categoryName AND p.status = :status")
+    @Query("SELECT p FROM Password p WHERE p.createdBy = :user AND p.category.name = :categoryName AND p.status = :status")
     List<Password> findByUserAndCategoryNameAndStatus(@Param("user") User user, @Param("categoryName") String categoryName, @Param("status") Status status);
     
-    @Query("SELECT p FROM Password p WHERE p.user = :user AND p.status = :status ORDER BY p.viewCount DESC")
-    List<Password> findByUserAndStatusOrderByViewCountDesc(@Param("user") User user, @Param("status") Status status);
+    // En çok görüntülenenler: LIMIT'li, (created_by, status, view_count DESC) indeksiyle
+    @Query("SELECT new com.project.Trinity.DTO.PasswordResponse(p.id, c.id, c.name, p.title, p.username, p.description, p.status, p.isFeatured, p.lastUsed, p.viewCount) " +
+           "FROM Password p JOIN p.category c WHERE p.createdBy.id = :userId AND p.status = :status ORDER BY p.viewCount DESC, p.id")
+    List<PasswordResponse> findMostViewed(@Param("userId") Long userId, @Param("status") Status status, Pageable pageable);
 
-   List<Password> findByUserAndIsFeaturedTrueAndStatus(@Param("user") User user, @Param("status") Status status);
+    // Yanıt kategori adını içerdiği için kategori aynı sorguda; kullanıcı yüklenmez
+    @EntityGraph(attributePaths = "category")
+    List<Password> findByCreatedByAndIsFeaturedTrueAndStatus(@Param("user") User user, @Param("status") Status status);
+
+    // Sahiplik WHERE koşulunda (created_by FK'si, users join'i yok); başka kullanıcının kaydı boş döner.
+    // Türetilmiş sorgu (findByIdAndCreatedById) users tablosuna join ekliyor, bu yüzden JPQL açıkça yazıldı.
+    @EntityGraph(attributePaths = "category")
+    @Query("SELECT p FROM Password p WHERE p.id = :id AND p.createdBy.id = :userId")
+    Optional<Password> findByIdAndCreatedById(@Param("id") Long id, @Param("userId") Long userId);
     
     @Query("SELECT p.category.name, COUNT(p) FROM Password p WHERE p.status = 'ACTIVE' GROUP BY p.category.name")
     List<Object[]> findPasswordCountByCategory();
+
+    // Kategori adı değişince listeleri etkilenen kullanıcılar
+    @Query("SELECT DISTINCT p.createdBy.id FROM Password p WHERE p.category.id = :categoryId")
+    List<Long> findOwnerIdsByCategoryId(@Param("categoryId") Long categoryId);
+
+    // Anahtar rotasyonu için: kullanıcının şifreli değerleri id sırasıyla (id, password, secret)
+    @Query("SELECT p.id, p.password, p.secret FROM Password p WHERE p.createdBy.id = :userId AND p.id > :afterId ORDER BY p.id")
+    List<Object[]> findSecretsByUserAfter(@Param("userId") Long userId, @Param("afterId") Long afterId, Pageable pageable);
+
+    // Kasa listesi: yalnızca listede gösterilen kolonlar, kategori ile tek sorguda
+    @Query("SELECT new com.project.Trinity.DTO.PasswordResponse(p.id, c.id, c.name, p.title, p.username, p.description, p.status, p.isFeatured, p.lastUsed, p.viewCount) " +
+           "FROM Password p JOIN p.category c WHERE p.createdBy.id = :userId AND p.status = :status ORDER BY p.id")
+    List<PasswordResponse> findListingByCreatedBy(@Param("userId") Long userId, @Param("status") Status status);
+
+    @Query("SELECT new com.project.Trinity.DTO.PasswordResponse(p.id, c.id, c.name, p.title, p.username, p.description, p.status, p.isFeatured, p.lastUsed, p.viewCount) " +
+           "FROM Password p JOIN p.category c WHERE p.createdBy.id = :userId AND c.name = :categoryName AND p.status = :status ORDER BY p.id")
+    List<PasswordResponse> findListingByUserAndCategoryName(@Param("userId") Long userId, @Param("categoryName") String categoryName,
+                                                            @Param("status") Status status);
+
+    // Delta senkronizasyonu: (since, version] aralığında değişen kayıtlar
+    @Query("SELECT new com.project.Trinity.DTO.PasswordResponse(p.id, c.id, c.name, p.title, p.username, p.description, p.status, p.isFeatured, p.lastUsed, p.viewCount) " +
+           "FROM Password p JOIN p.category c WHERE p.createdBy.id = :userId AND p.changeVersion > :since AND p.changeVersion <= :version " +
+           "AND p.status IN :statuses ORDER BY p.changeVersion, p.id")
+    List<PasswordResponse> findListingChangedBetween(@Param("userId") Long userId, @Param("since") Long since,
+                                                     @Param("version") Long version, @Param("statuses") Collection<Status> statuses);
+
+    // Kategori adı değişince kayıtlar sahibinin yeni kasa sürümüyle işaretlenir (delta senkronizasyonu görsün diye)
+    @Modifying
+    @Query(value = "UPDATE passwords p SET change_version = u.vault_version FROM users u " +
+                   "WHERE u.id = p.created_by AND p.category_id = :categoryId", nativeQuery = true)
+    int markCategoryChanged(@Param("categoryId") Long categoryId);
+
+    // Dışa aktarma: id > afterId ile ileri yönlü sayfalar, (created_by, status, id) indeksiyle
+    @Query("SELECT new com.project.Trinity.DTO.PasswordExportRow(p.id, c.name, p.title, p.username, p.description, p.isFeatured, p.password, p.secret) " +
+           "FROM Password p JOIN p.category c WHERE p.createdBy.id = :userId AND p.status = :status AND p.id > :afterId ORDER BY p.id")
+    List<PasswordExportRow> findExportBatch(@Param("userId") Long userId, @Param("status") Status status,
+                                            @Param("afterId") Long afterId, Pageable pageable);
+
+    // Toplu işlemler: sahiplik tek sorguda kontrol edilir, değişiklik tek UPDATE ile uygulanır.
+    // UPDATE'ler de aynı sahiplik koşulunu taşır; id listesi istemciden gelse bile başkasının kaydına dokunulamaz.
+    @Query("SELECT p.id FROM Password p WHERE p.id IN :ids AND p.createdBy.id = :userId AND p.status = :status")
+    List<Long> findOwnedIds(@Param("ids") Collection<Long> ids, @Param("userId") Long userId, @Param("status") Status status);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Password p SET p.category.id = :categoryId, p.changeVersion = :version " +
+           "WHERE p.id IN :ids AND p.createdBy.id = :userId AND p.status = com.project.Trinity.Entity.Status.ACTIVE")
+    int moveToCategory(@Param("ids") Collection<Long> ids, @Param("userId") Long userId,
+                       @Param("categoryId") Long categoryId, @Param("version") long version);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Password p SET p.isFeatured = :featured, p.changeVersion = :version " +
+           "WHERE p.id IN :ids AND p.createdBy.id = :userId AND p.status = com.project.Trinity.Entity.Status.ACTIVE")
+    int setFeatured(@Param("ids") Collection<Long> ids, @Param("userId") Long userId,
+                    @Param("featured") boolean featured, @Param("version") long version);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Password p SET p.status = com.project.Trinity.Entity.Status.INACTIVE, p.changeVersion = :version " +
+           "WHERE p.id IN :ids AND p.createdBy.id = :userId AND p.status = com.project.Trinity.Entity.Status.ACTIVE")
+    int deactivate(@Param("ids") Collection<Long> ids, @Param("userId") Long userId, @Param("version") long version);
+
+    // Şifre gösterimi: sahiplik sorguda kontrol edilir, yalnızca şifreli değer okunur
+    @Query("SELECT new com.project.Trinity.DTO.PasswordCiphertext(p.password, p.secret) FROM Password p " +
+           "WHERE p.id = :id AND p.createdBy.id = :userId")
+    Optional<PasswordCiphertext> findCiphertextByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
 }
\ No newline at end of file
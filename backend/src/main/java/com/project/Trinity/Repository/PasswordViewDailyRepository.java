@@ -0,0 +1,13 @@
+package com.project.Trinity.Repository;
+
+import com.project.Trinity.Entity.PasswordViewDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface PasswordViewDailyRepository extends JpaRepository<PasswordViewDaily, Long> {
+    List<PasswordViewDaily> findByUserIdAndDayGreaterThanEqualOrderByDay(Long userId, LocalDate from);
+}
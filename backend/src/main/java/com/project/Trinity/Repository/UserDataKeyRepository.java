@@ -0,0 +1,9 @@
+package com.project.Trinity.Repository;
+
+import com.project.Trinity.Entity.UserDataKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserDataKeyRepository extends JpaRepository<UserDataKey, Long> {
+}
@@ -0,0 +1,58 @@
+package com.project.Trinity.Repository;
+
+import com.project.Trinity.DTO.AvatarImage;
+import com.project.Trinity.Entity.UserProfilePicture;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Sorgular yalnızca gereken kolonu okur; hash kontrolü ve küçük resimler orijinal resmi belleğe almaz.
+@Repository
+public interface UserProfilePictureRepository extends JpaRepository<UserProfilePicture, Long> {
+
+    @Query("SELECT p.hash FROM UserProfilePicture p WHERE p.userId = :userId")
+    Optional<String> findHashByUserId(@Param("userId") Long userId);
+
+    // Liste yanıtları için (userId, hash) çiftleri
+    @Query("SELECT p.userId, p.hash FROM UserProfilePicture p WHERE p.userId IN :userIds")
+    List<Object[]> findHashesByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @Query("SELECT new com.project.Trinity.DTO.AvatarImage(p.image, p.contentType, p.hash) FROM UserProfilePicture p WHERE p.userId = :userId")
+    Optional<AvatarImage> findOriginal(@Param("userId") Long userId);
+
+    @Query("SELECT new com.project.Trinity.DTO.AvatarImage(p.thumbSmall, 'image/jpeg', p.hash) FROM UserProfilePicture p WHERE p.userId = :userId")
+    Optional<AvatarImage> findSmall(@Param("userId") Long userId);
+
+    @Query("SELECT new com.project.Trinity.DTO.AvatarImage(p.thumbMedium, 'image/jpeg', p.hash) FROM UserProfilePicture p WHERE p.userId = :userId")
+    Optional<AvatarImage> findMedium(@Param("userId") Long userId);
+
+    // Hash'i olmayan eski kayıtlar (hash/content_type kolonlarından önce taşınanlar); AvatarService açılışta doldurur
+    @Query("SELECT p.userId FROM UserProfilePicture p WHERE p.hash IS NULL AND p.userId > :afterId ORDER BY p.userId")
+    List<Long> findIdsWithoutHash(@Param("afterId") long afterId, Pageable pageable);
+
+    // hash IS NULL koşulu: bu arada yeni resim yüklendiyse onun hash'i ezilmez
+    @Modifying
+    @Query("UPDATE UserProfilePicture p SET p.hash = :hash, p.contentType = :contentType WHERE p.userId = :userId AND p.hash IS NULL")
+    int backfillHash(@Param("userId") Long userId, @Param("hash") String hash, @Param("contentType") String contentType);
+
+    // Yeni yükleme eski küçük resimleri temizler; kayıt yoksa 0 döner ve çağıran ekler
+    @Modifying
+    @Query("UPDATE UserProfilePicture p SET p.image = :image, p.contentType = :contentType, p.hash = :hash, " +
+           "p.thumbSmall = NULL, p.thumbMedium = NULL, p.updatedAt = :updatedAt WHERE p.userId = :userId")
+    int replaceImage(@Param("userId") Long userId, @Param("image") byte[] image, @Param("contentType") String contentType,
+                     @Param("hash") String hash, @Param("updatedAt") LocalDateTime updatedAt);
+
+    // hash koşulu: bu arada yeni resim yüklendiyse eski resmin küçük resimleri yazılmaz
+    @Modifying
+    @Query("UPDATE UserProfilePicture p SET p.thumbSmall = :small, p.thumbMedium = :medium WHERE p.userId = :userId AND p.hash = :hash")
+    int saveThumbnails(@Param("userId") Long userId, @Param("hash") String hash,
+                       @Param("small") byte[] small, @Param("medium") byte[] medium);
+}
@@ -1,11 +1,18 @@
 package com.project.Trinity.Repository;
 
 
+import com.project.Trinity.DTO.UserPrincipal;
+import com.project.Trinity.DTO.UserSummary;
 import com.project.Trinity.Entity.Status;
 import com.project.Trinity.Entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,4 +24,51 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByRole(String role);
     Optional<User> findByStatus(String status);
     List<User> findAllByStatus(Status status);
+
+    @Query("SELECT new com.project.Trinity.DTO.UserPrincipal(u.id, u.username, u.password, u.role, u.status, u.frozenAt, u.securityStamp) " +
+           "FROM User u WHERE u.username = :username")
+    Optional<UserPrincipal> findPrincipalByUsername(@Param("username") String username);
+
+    @Modifying
+    @Query("UPDATE User u SET u.status = com.project.Trinity.Entity.Status.ACTIVE, u.frozenAt = null WHERE u.id = :id")
+    int reactivate(@Param("id") Long id);
+
+    // Yönetici listesi: id üzerinden keyset sayfa, resim tablosundan yalnızca hash okunur
+    @Query("SELECT new com.project.Trinity.DTO.UserSummary(u.id, u.username, u.email, u.phone, u.role, u.status, p.hash) " +
+           "FROM User u LEFT JOIN UserProfilePicture p ON p.userId = u.id " +
+           "WHERE u.id > :afterId ORDER BY u.id")
+    List<UserSummary> findSummaryPage(@Param("afterId") long afterId, Pageable pageable);
+
+    // Önek araması; prefix küçük harfli ve LIKE özel karakterleri kaçışlı gelir (sonunda %).
+    // lower(username), lower(email) ve phone üzerindeki text_pattern_ops indeksleri kullanılır (SchemaMigrations).
+    @Query("SELECT new com.project.Trinity.DTO.UserSummary(u.id, u.username, u.email, u.phone, u.role, u.status, p.hash) " +
+           "FROM User u LEFT JOIN UserProfilePicture p ON p.userId = u.id " +
+           "WHERE u.id > :afterId AND (lower(u.username) LIKE :prefix ESCAPE '\\' " +
+           "OR lower(u.email) LIKE :prefix ESCAPE '\\' OR u.phone LIKE :prefix ESCAPE '\\') ORDER BY u.id")
+    List<UserSummary> searchSummaryPage(@Param("prefix") String prefix, @Param("afterId") long afterId, Pageable pageable);
+
+    @Query("SELECT new com.project.Trinity.DTO.UserSummary(u.id, u.username, u.email, u.phone, u.role, u.status, p.hash) " +
+           "FROM User u LEFT JOIN UserProfilePicture p ON p.userId = u.id ORDER BY u.id")
+    List<UserSummary> findAllSummaries();
+
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.username = :username")
+    int updatePasswordHash(@Param("username") String username, @Param("password") String password);
+
+    @Query("SELECT u.securityStamp FROM User u WHERE u.id = :id")
+    Optional<Long> findSecurityStampById(@Param("id") Long id);
+
+    @Query("SELECT u.vaultVersion FROM User u WHERE u.id = :id")
+    Optional<Long> findVaultVersionById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.vaultVersion = u.vaultVersion + 1 WHERE u.id = :id")
+    int incrementVaultVersion(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.vaultVersion = u.vaultVersion + 1 WHERE u.id IN :ids")
+    int incrementVaultVersions(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
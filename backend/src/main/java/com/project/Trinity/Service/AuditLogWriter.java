@@ -0,0 +1,201 @@
+package com.project.Trinity.Service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Denetim kayıtları iş transaction'ının dışında yazılır: kayıt commit sonrası sınırlı, kilitsiz bir kuyruğa eklenir,
+// tek yazıcı (zamanlanmış flush) kuyruğu JDBC batch INSERT ile boşaltır. Rollback olan işlemin kaydı hiç kuyruğa girmez.
+@Service
+public class AuditLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+
+    private static final String INSERT_SQL = "INSERT INTO audit_log (admin, action, timestamp) VALUES (?, ?, ?)";
+
+    // Kuyruk doluyken: yeni kaydı düşür, en eski kaydı düşür ya da kaydı çağıran thread'de hemen yaz
+    public enum OverflowPolicy { DROP_NEWEST, DROP_OLDEST, CALLER_WRITES }
+
+    private record Entry(String admin, String action, Timestamp timestamp, long enqueuedAt) {
+        Object[] toRow() {
+            return new Object[]{admin, action, timestamp};
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger(); // ConcurrentLinkedQueue.size() O(n); sınır bu sayaçla tutulur
+    private final int capacity;
+    private final int batchSize;
+    private final OverflowPolicy overflowPolicy;
+    private volatile boolean closed;
+
+    private final LongAdder writtenEntries = new LongAdder();
+    private final LongAdder droppedEntries = new LongAdder();
+    private final LongAdder callerWrites = new LongAdder();
+    private final LongAdder failedEntries = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder latencySumNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          @Value("${audit.writer.queue-capacity:10000}") int capacity,
+                          @Value("${audit.writer.batch-size:500}") int batchSize,
+                          @Value("${audit.writer.overflow-policy:CALLER_WRITES}") OverflowPolicy overflowPolicy) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public void record(String action) {
+        record(null, action);
+    }
+
+    // Zaman damgası işlem anında alınır; yazma commit sonrasına ertelenir (transaction yoksa hemen kuyruğa girer)
+    public void record(String admin, String action) {
+        Timestamp timestamp = Timestamp.valueOf(LocalDateTime.now());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(admin, action, timestamp);
+                }
+            });
+        } else {
+            enqueue(admin, action, timestamp);
+        }
+    }
+
+    private void enqueue(String admin, String action, Timestamp timestamp) {
+        Entry entry = new Entry(admin, action, timestamp, System.nanoTime());
+        if (closed) {
+            writeNow(entry); // Kapanış flush'ından sonra gelen kayıt kuyrukta kalmasın
+            return;
+        }
+        while (!tryReserve()) {
+            switch (overflowPolicy) {
+                case DROP_NEWEST -> {
+                    droppedEntries.increment();
+                    return;
+                }
+                case DROP_OLDEST -> {
+                    if (queue.poll() != null) {
+                        queued.decrementAndGet();
+                        droppedEntries.increment();
+                    }
+                }
+                case CALLER_WRITES -> {
+                    callerWrites.increment();
+                    writeNow(entry);
+                    return;
+                }
+            }
+        }
+        queue.offer(entry);
+    }
+
+    // CAS ile yer ayırır; kapasite doluysa false
+    private boolean tryReserve() {
+        int current;
+        do {
+            current = queued.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!queued.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private void writeNow(Entry entry) {
+        try {
+            jdbcTemplate.update(INSERT_SQL, entry.toRow());
+            writtenEntries.increment();
+            recordLatency(entry);
+        } catch (Exception e) {
+            failedEntries.increment();
+            logger.error("Denetim kaydı yazılamadı: {} ({})", entry.action(), e.getMessage());
+        }
+    }
+
+    // synchronized: zamanlanmış flush ile kapanış flush'ı aynı anda çalışmaz, yazıcı her zaman tek
+    @Scheduled(fixedDelayString = "${audit.writer.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (true) {
+            Entry entry;
+            while (batch.size() < batchSize && (entry = queue.poll()) != null) {
+                batch.add(entry);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            queued.addAndGet(-batch.size());
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<Entry> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (Entry entry : batch) {
+            rows.add(entry.toRow());
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            writtenEntries.add(batch.size());
+            batches.increment();
+            batch.forEach(this::recordLatency);
+        } catch (Exception e) {
+            failedEntries.add(batch.size());
+            logger.error("Denetim kayıtları yazılamadı ({} kayıt): {}", batch.size(), e.getMessage());
+        }
+    }
+
+    // Commit (kuyruğa ekleme) ile veritabanına yazma arasındaki süre
+    private void recordLatency(Entry entry) {
+        long latency = System.nanoTime() - entry.enqueuedAt();
+        latencySumNanos.add(latency);
+        maxLatencyNanos.accumulateAndGet(latency, Math::max);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        closed = true;
+        flush();
+    }
+
+    public Map<String, Object> stats() {
+        long written = writtenEntries.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queued", queued.get());
+        stats.put("capacity", capacity);
+        stats.put("overflowPolicy", overflowPolicy.name());
+        stats.put("written", written);
+        stats.put("batches", batches.sum());
+        stats.put("dropped", droppedEntries.sum());
+        stats.put("callerWrites", callerWrites.sum());
+        stats.put("failed", failedEntries.sum());
+        stats.put("avgLatencyMs", written == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(latencySumNanos.sum() / written));
+        stats.put("maxLatencyMs", TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get()));
+        return stats;
+    }
+}
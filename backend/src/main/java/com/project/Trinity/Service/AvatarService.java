@@ -0,0 +1,338 @@
+package com.project.Trinity.Service;
+
+import com.project.Trinity.DTO.AvatarImage;
+import com.project.Trinity.Entity.UserProfilePicture;
+import com.project.Trinity.Repository.UserProfilePictureRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Profil resimleri: içerik hash'i, avatar URL'si ve küçük resimler.
+// Küçük resimler yükleme commit edildikten sonra sınırlı bir arka plan havuzunda üretilir; kuyruk doluysa
+// iş atlanır ve avatar istekleri orijinal resme düşer.
+// hash kolonundan önce taşınmış resimlerin hash'i, türü ve küçük resimleri açılışta arka planda doldurulur.
+@Service
+public class AvatarService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvatarService.class);
+
+    public enum Size {
+        SMALL, MEDIUM, ORIGINAL
+    }
+
+    private final UserProfilePictureRepository pictureRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor thumbnailExecutor;
+    private final long maxBytes;
+    private final long maxPixels;
+    private final int smallSize;
+    private final int mediumSize;
+    private final int backfillBatchSize;
+    private final ExecutorService backfillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "avatar-hash-backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder backfilled = new LongAdder();
+
+    public AvatarService(UserProfilePictureRepository pictureRepository, PlatformTransactionManager transactionManager,
+                         @Value("${users.avatar.max-bytes:5242880}") long maxBytes,
+                         @Value("${users.avatar.max-pixels:25000000}") long maxPixels,
+                         @Value("${users.avatar.small-size:64}") int smallSize,
+                         @Value("${users.avatar.medium-size:256}") int mediumSize,
+                         @Value("${users.avatar.thumbnail-threads:1}") int threads,
+                         @Value("${users.avatar.thumbnail-queue-capacity:16}") int queueCapacity,
+                         @Value("${users.avatar.backfill-batch-size:100}") int backfillBatchSize) {
+        this.pictureRepository = pictureRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxBytes = maxBytes;
+        this.maxPixels = maxPixels;
+        this.smallSize = smallSize;
+        this.mediumSize = mediumSize;
+        this.backfillBatchSize = backfillBatchSize;
+        this.thumbnailExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "avatar-thumbnails");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, executor) -> {
+                    skipped.increment();
+                    logger.warn("Küçük resim kuyruğu dolu, iş atlandı");
+                });
+        this.thumbnailExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    public static Size parseSize(String size) {
+        if (size == null || size.isBlank()) {
+            return Size.ORIGINAL;
+        }
+        try {
+            return Size.valueOf(size.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Geçersiz avatar boyutu: " + size);
+        }
+    }
+
+    public static String url(Long userId, String hash) {
+        return hash != null ? "/api/users/" + userId + "/avatar?v=" + hash : null;
+    }
+
+    @Transactional
+    public String store(Long userId, byte[] image) {
+        if (image == null || image.length == 0) {
+            throw new IllegalArgumentException("Dosya boş");
+        }
+        if (image.length > maxBytes) {
+            throw new IllegalArgumentException("Profil resmi en fazla " + (maxBytes / 1024) + " KB olabilir");
+        }
+        String contentType = detectContentType(image);
+        if (contentType == null) {
+            throw new IllegalArgumentException("Desteklenmeyen resim formatı (JPEG, PNG, GIF veya WEBP olmalı)");
+        }
+        String hash = sha256(image);
+        LocalDateTime now = LocalDateTime.now();
+
+        if (pictureRepository.replaceImage(userId, image, contentType, hash, now) == 0) {
+            UserProfilePicture picture = new UserProfilePicture();
+            picture.setUserId(userId);
+            picture.setImage(image);
+            picture.setContentType(contentType);
+            picture.setHash(hash);
+            picture.setUpdatedAt(now);
+            pictureRepository.save(picture);
+        }
+
+        // Kayıt commit edilmeden üretilen küçük resim yazılacak satırı bulamaz
+        Runnable job = () -> generateThumbnails(userId, hash, image);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    thumbnailExecutor.execute(job);
+                }
+            });
+        } else {
+            thumbnailExecutor.execute(job);
+        }
+        return hash;
+    }
+
+    public Optional<String> hash(Long userId) {
+        return pictureRepository.findHashByUserId(userId);
+    }
+
+    public Map<Long, String> hashes(Collection<Long> userIds) {
+        Map<Long, String> hashes = new HashMap<>();
+        if (!userIds.isEmpty()) {
+            for (Object[] row : pictureRepository.findHashesByUserIds(userIds)) {
+                hashes.put((Long) row[0], (String) row[1]);
+            }
+        }
+        return hashes;
+    }
+
+    // Küçük resim henüz yoksa orijinal döner
+    public Optional<AvatarImage> load(Long userId, Size size) {
+        Optional<AvatarImage> image = switch (size) {
+            case SMALL -> pictureRepository.findSmall(userId);
+            case MEDIUM -> pictureRepository.findMedium(userId);
+            case ORIGINAL -> Optional.empty();
+        };
+        if (image.isPresent() && image.get().getData() != null) {
+            return image;
+        }
+        return pictureRepository.findOriginal(userId);
+    }
+
+    public void delete(Long userId) {
+        pictureRepository.deleteById(userId);
+    }
+
+    private void generateThumbnails(Long userId, String hash, byte[] image) {
+        try {
+            BufferedImage source = decode(image);
+            if (source == null) {
+                failed.increment();
+                return; // ImageIO bu formatı okuyamıyor (ör. WEBP); orijinal servis edilir
+            }
+            byte[] small = thumbnail(source, smallSize);
+            byte[] medium = thumbnail(source, mediumSize);
+            transactionTemplate.executeWithoutResult(status ->
+                    pictureRepository.saveThumbnails(userId, hash, small, medium));
+            generated.increment();
+        } catch (Exception e) {
+            failed.increment();
+            logger.warn("Küçük resim üretilemedi: userId={} ({})", userId, e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startBackfill() {
+        backfillExecutor.submit(this::backfillHashes);
+    }
+
+    // Hash'i olmayan her resim için hash ve tür yazılır, küçük resimler bu thread'de üretilir
+    // (küçük resim kuyruğu sınırlı; toplu işte atlanmasınlar). Türü tanınmayan resim octet-stream olarak işaretlenir.
+    private void backfillHashes() {
+        long afterId = 0;
+        try {
+            List<Long> userIds;
+            while (!(userIds = pictureRepository.findIdsWithoutHash(afterId, PageRequest.of(0, backfillBatchSize))).isEmpty()
+                    && !Thread.currentThread().isInterrupted()) {
+                for (Long userId : userIds) {
+                    afterId = userId;
+                    AvatarImage original = pictureRepository.findOriginal(userId).orElse(null);
+                    if (original == null || original.getData() == null || original.getHash() != null) {
+                        continue; // Silinmiş ya da bu arada yeniden yüklenmiş
+                    }
+                    byte[] image = original.getData();
+                    String hash = sha256(image);
+                    String contentType = detectContentType(image);
+                    Integer updated = transactionTemplate.execute(status -> pictureRepository.backfillHash(
+                            userId, hash, contentType != null ? contentType : "application/octet-stream"));
+                    if (updated != null && updated > 0) {
+                        backfilled.increment();
+                        if (contentType != null) {
+                            generateThumbnails(userId, hash, image);
+                        }
+                    }
+                }
+            }
+            if (backfilled.sum() > 0) {
+                logger.info("Eski profil resimlerinin hash'leri dolduruldu: {} kayıt", backfilled.sum());
+            }
+        } catch (Exception e) {
+            logger.error("Profil resmi hash doldurma durdu (son userId={}): {}", afterId, e.getMessage());
+        }
+    }
+
+    // Boyut, piksel verisi çözülmeden okunur; çok büyük resimler (decompression bomb) belleğe alınmaz
+    private BufferedImage decode(byte[] image) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(image))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    throw new IOException("Resim çok büyük: " + pixels + " piksel");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Kare kırpılır (merkezden), JPEG olarak yazılır; saydam alanlar beyaz olur
+    private static byte[] thumbnail(BufferedImage source, int size) throws IOException {
+        int side = Math.min(source.getWidth(), source.getHeight());
+        int x = (source.getWidth() - side) / 2;
+        int y = (source.getHeight() - side) / 2;
+        int target = Math.min(size, side);
+
+        BufferedImage scaled = new BufferedImage(target, target, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, target, target);
+            graphics.drawImage(source, 0, 0, target, target, x, y, x + side, y + side, null);
+        } finally {
+            graphics.dispose();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(scaled, "jpg", out);
+        return out.toByteArray();
+    }
+
+    // Dosya adı/Content-Type istemciden gelir; tür imza baytlarından belirlenir
+    private static String detectContentType(byte[] data) {
+        if (data.length >= 3 && (data[0] & 0xFF) == 0xFF && (data[1] & 0xFF) == 0xD8 && (data[2] & 0xFF) == 0xFF) {
+            return "image/jpeg";
+        }
+        if (data.length >= 8 && (data[0] & 0xFF) == 0x89 && data[1] == 'P' && data[2] == 'N' && data[3] == 'G') {
+            return "image/png";
+        }
+        if (data.length >= 6 && data[0] == 'G' && data[1] == 'I' && data[2] == 'F' && data[3] == '8') {
+            return "image/gif";
+        }
+        if (data.length >= 12 && data[0] == 'R' && data[1] == 'I' && data[2] == 'F' && data[3] == 'F'
+                && data[8] == 'W' && data[9] == 'E' && data[10] == 'B' && data[11] == 'P') {
+            return "image/webp";
+        }
+        return null;
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 bulunamadı", e);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queuedThumbnails", thumbnailExecutor.getQueue().size());
+        stats.put("generatedThumbnails", generated.sum());
+        stats.put("skippedThumbnails", skipped.sum());
+        stats.put("failedThumbnails", failed.sum());
+        stats.put("backfilledHashes", backfilled.sum());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        thumbnailExecutor.shutdownNow();
+        backfillExecutor.shutdownNow();
+    }
+}
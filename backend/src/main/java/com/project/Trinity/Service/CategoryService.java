@@ -3,6 +3,7 @@ package com.project.Trinity.Service;
 import com.project.Trinity.Entity.Category;
 import com.project.Trinity.Entity.User;
 import com.project.Trinity.Repository.CategoryRepository;
+import com.project.Trinity.Repository.PasswordRepository;
 import com.project.Trinity.Entity.Status;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -16,9 +17,14 @@ import java.util.Optional;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final PasswordRepository passwordRepository;
+    private final VaultVersionService vaultVersionService;
 
-    public CategoryService(CategoryRepository categoryRepository) {
+    public CategoryService(CategoryRepository categoryRepository, PasswordRepository passwordRepository,
+                           VaultVersionService vaultVersionService) {
         this.categoryRepository = categoryRepository;
+        this.passwordRepository = passwordRepository;
+        this.vaultVersionService = vaultVersionService;
     }
 
     @Transactional
@@ -61,13 +67,19 @@ public class CategoryService {
             throw new IllegalArgumentException("Bu kategori adı zaten mevcut: " + name);
         }
 
-     
+        boolean renamed = !category.getName().equals(name);
         category.setName(name);
         category.setDescription(description); // description eklendi
 
         category.setStatus(status);
 
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        if (renamed) {
+            // Kasa listeleri kategori adını içerir; bu kategoriyi kullananların ETag'i değişmeli
+            vaultVersionService.bumpAll(passwordRepository.findOwnerIdsByCategoryId(id));
+            passwordRepository.markCategoryChanged(id);
+        }
+        return saved;
     }
 
     @Transactional
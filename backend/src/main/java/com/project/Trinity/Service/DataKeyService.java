@@ -0,0 +1,108 @@
+package com.project.Trinity.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.Trinity.Entity.UserDataKey;
+import com.project.Trinity.Repository.UserDataKeyRepository;
+import com.project.Trinity.Util.EncryptionUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Service
+public class DataKeyService {//Kullanıcı başına veri anahtarlarını üretir, ana anahtarla sarar/çözer ve çözülmüş halini önbellekte tutar.
+
+    private static final Logger logger = LoggerFactory.getLogger(DataKeyService.class);
+
+    private final UserDataKeyRepository dataKeyRepository;
+    private final EncryptionUtil encryptionUtil;
+    private final TransactionTemplate requiresNew;
+    private final Cache<Long, SecretKey> unwrappedKeys;
+
+    public DataKeyService(UserDataKeyRepository dataKeyRepository, EncryptionUtil encryptionUtil,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${encryption.data-key-cache.max-size:10000}") long maxSize) {
+        this.dataKeyRepository = dataKeyRepository;
+        this.encryptionUtil = encryptionUtil;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.unwrappedKeys = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+    }
+
+    // Kullanıcının veri anahtarını döner; yoksa üretir. Yeni anahtar ayrı transaction'da commit edilir,
+    // böylece çağıranın transaction'ı geri alınsa bile bu anahtarla şifrelenmiş veri kaybolmaz.
+    public SecretKey getOrCreate(Long userId) {
+        return unwrappedKeys.get(userId, id -> dataKeyRepository.findById(id)
+                .map(this::unwrap)
+                .orElseGet(() -> create(id)));
+    }
+
+    public Optional<SecretKey> find(Long userId) {
+        SecretKey cached = unwrappedKeys.getIfPresent(userId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return dataKeyRepository.findById(userId).map(dataKey -> {
+            SecretKey key = unwrap(dataKey);
+            unwrappedKeys.put(userId, key);
+            return key;
+        });
+    }
+
+    // Ana anahtar değiştiyse veri anahtarını yeni ana anahtarla yeniden sarar. Şifrelenmiş kayıtlara dokunmaz.
+    public boolean rewrapIfOutdated(UserDataKey dataKey) {
+        int currentVersion = encryptionUtil.getMasterKeyVersion();
+        if (dataKey.getMasterKeyVersion() == currentVersion) {
+            return false;
+        }
+        SecretKey key = unwrap(dataKey);
+        dataKey.setWrappedKey(encryptionUtil.wrapKey(key));
+        dataKey.setMasterKeyVersion(currentVersion);
+        dataKey.setRotatedAt(LocalDateTime.now());
+        dataKeyRepository.save(dataKey);
+        return true;
+    }
+
+    public void delete(Long userId) {
+        dataKeyRepository.deleteById(userId);
+        unwrappedKeys.invalidate(userId);
+    }
+
+    private SecretKey unwrap(UserDataKey dataKey) {
+        return encryptionUtil.unwrapKey(dataKey.getWrappedKey(), dataKey.getMasterKeyVersion());
+    }
+
+    private SecretKey create(Long userId) {
+        SecretKey key = encryptionUtil.generateDataKey();
+        try {
+            requiresNew.executeWithoutResult(status -> {
+                UserDataKey dataKey = new UserDataKey();
+                dataKey.setUserId(userId);
+                dataKey.setWrappedKey(encryptionUtil.wrapKey(key));
+                dataKey.setMasterKeyVersion(encryptionUtil.getMasterKeyVersion());
+                dataKey.setLegacyMigrated(false);
+                dataKey.setCreatedAt(LocalDateTime.now());
+                dataKeyRepository.saveAndFlush(dataKey);
+            });
+            logger.info("Veri anahtarı oluşturuldu: userId={}", userId);
+            return key;
+        } catch (DataIntegrityViolationException e) {
+            // Eşzamanlı başka bir istek anahtarı önce oluşturdu
+            return requiresNew.execute(status -> unwrap(dataKeyRepository.findById(userId)
+                    .orElseThrow(() -> new IllegalStateException("Veri anahtarı bulunamadı: " + userId))));
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package com.project.Trinity.Service;
+
+import com.project.Trinity.Entity.KeyRotationCheckpoint;
+import com.project.Trinity.Entity.UserDataKey;
+import com.project.Trinity.Repository.KeyRotationCheckpointRepository;
+import com.project.Trinity.Repository.PasswordRepository;
+import com.project.Trinity.Repository.UserDataKeyRepository;
+import com.project.Trinity.Repository.UserRepository;
+import com.project.Trinity.Util.EncryptionUtil;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.SecretKey;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Ana anahtar rotasyonu: kullanıcılar id sırasıyla (keyset) gruplar halinde gezilir, veri anahtarları yeniden sarılır.
+// Ana anahtarla şifrelenmiş eski kayıtlar bir kereliğine kullanıcının veri anahtarına taşınır.
+// Her grup sonunda kaldığı yer kaydedilir; uygulama yeniden başlarsa iş aynı noktadan devam eder.
+@Service
+public class KeyRotationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeyRotationService.class);
+    private static final String STATUS_RUNNING = "RUNNING";
+    private static final String STATUS_COMPLETED = "COMPLETED";
+    // Değişmiş (stale) kayıt kalırsa kullanıcının kayıtları bu kadar kez yeniden taranır
+    private static final int MAX_LEGACY_PASSES = 3;
+
+    private final UserRepository userRepository;
+    private final PasswordRepository passwordRepository;
+    private final UserDataKeyRepository dataKeyRepository;
+    private final KeyRotationCheckpointRepository checkpointRepository;
+    private final DataKeyService dataKeyService;
+    private final SecretStorageMigration secretStorageMigration;
+    private final EncryptionUtil encryptionUtil;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    private final ExecutorService coordinator;
+    private final ExecutorService workers;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public KeyRotationService(UserRepository userRepository, PasswordRepository passwordRepository,
+                              UserDataKeyRepository dataKeyRepository, KeyRotationCheckpointRepository checkpointRepository,
+                              DataKeyService dataKeyService, SecretStorageMigration secretStorageMigration,
+                              EncryptionUtil encryptionUtil, JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${encryption.rotation.batch-size:100}") int batchSize,
+                              @Value("${encryption.rotation.parallelism:4}") int parallelism) {
+        this.userRepository = userRepository;
+        this.passwordRepository = passwordRepository;
+        this.dataKeyRepository = dataKeyRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.dataKeyService = dataKeyService;
+        this.secretStorageMigration = secretStorageMigration;
+        this.encryptionUtil = encryptionUtil;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.coordinator = Executors.newSingleThreadExecutor(runnable -> daemon(runnable, "key-rotation"));
+        AtomicInteger workerIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(parallelism,
+                runnable -> daemon(runnable, "key-rotation-worker-" + workerIndex.incrementAndGet()));
+    }
+
+    // Yeni rotasyon başlatır; zaten çalışıyorsa mevcut durumu döner.
+    // Kayıt koşullu UPDATE ile alınır: aynı anda gelen iki istekten ya da açılıştaki devam ettirmeyle yalnızca biri sıfırlar.
+    public Map<String, Object> start() {
+        if (running.get()) {
+            return status();
+        }
+        int target = encryptionUtil.getMasterKeyVersion();
+        LocalDateTime now = LocalDateTime.now();
+        boolean claimed;
+        try {
+            claimed = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                if (checkpointRepository.claim(KeyRotationCheckpoint.DATA_KEY_ROTATION, target, now) > 0) {
+                    return true;
+                }
+                if (checkpointRepository.existsById(KeyRotationCheckpoint.DATA_KEY_ROTATION)) {
+                    return false;
+                }
+                KeyRotationCheckpoint checkpoint = new KeyRotationCheckpoint();
+                checkpoint.setName(KeyRotationCheckpoint.DATA_KEY_ROTATION);
+                reset(checkpoint, target, now);
+                checkpointRepository.saveAndFlush(checkpoint);
+                return true;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            claimed = false; // İlk kaydı aynı anda başka istek ekledi
+        }
+        if (!claimed) {
+            // Kayıt zaten RUNNING: bu süreçte çalışan yoksa (önceki çalışma hata ile durduysa) kaldığı yerden sürdürülür
+            logger.info("Anahtar rotasyonu zaten başlatılmış; yeni rotasyon açılmadı");
+        }
+        launch();
+        return status();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinished() {
+        checkpointRepository.findById(KeyRotationCheckpoint.DATA_KEY_ROTATION)
+                .filter(checkpoint -> STATUS_RUNNING.equals(checkpoint.getStatus()))
+                .ifPresent(checkpoint -> {
+                    logger.info("Yarım kalan anahtar rotasyonu sürdürülüyor: lastUserId={}", checkpoint.getLastUserId());
+                    launch();
+                });
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("running", running.get());
+        result.put("currentMasterVersion", encryptionUtil.getMasterKeyVersion());
+        checkpointRepository.findById(KeyRotationCheckpoint.DATA_KEY_ROTATION).ifPresent(checkpoint -> {
+            result.put("status", checkpoint.getStatus());
+            result.put("targetMasterVersion", checkpoint.getTargetMasterVersion());
+            result.put("lastUserId", checkpoint.getLastUserId());
+            result.put("processedUsers", checkpoint.getProcessedUsers());
+            result.put("rewrappedKeys", checkpoint.getRewrappedKeys());
+            result.put("reencryptedSecrets", checkpoint.getReencryptedSecrets());
+            result.put("failedUsers", checkpoint.getFailedUsers());
+            result.put("failedSecrets", checkpoint.getFailedSecrets());
+            result.put("startedAt", checkpoint.getStartedAt());
+            result.put("updatedAt", checkpoint.getUpdatedAt());
+        });
+        return result;
+    }
+
+    private void launch() {
+        if (running.compareAndSet(false, true)) {
+            coordinator.submit(() -> {
+                try {
+                    // Depolama taşıması (password -> secret) aynı satırları değiştirir; iki iş aynı anda çalışmaz
+                    if (!secretStorageMigration.completion().isDone()) {
+                        logger.info("Anahtar rotasyonu, şifreli değer taşımasının bitmesini bekliyor");
+                        secretStorageMigration.completion().join();
+                    }
+                    run();
+                } catch (Exception e) {
+                    logger.error("Anahtar rotasyonu durdu: {}", e.getMessage(), e);
+                } finally {
+                    running.set(false);
+                }
+            });
+        }
+    }
+
+    private void run() throws Exception {
+        KeyRotationCheckpoint checkpoint = checkpointRepository.findById(KeyRotationCheckpoint.DATA_KEY_ROTATION)
+                .orElseThrow(() -> new IllegalStateException("Rotasyon kaydı bulunamadı"));
+        if (!STATUS_RUNNING.equals(checkpoint.getStatus())) {
+            return; // Devam ettirilecek rotasyon yok
+        }
+        int currentVersion = encryptionUtil.getMasterKeyVersion();
+        if (checkpoint.getTargetMasterVersion() != currentVersion) {
+            // Yarım kalan rotasyon eski bir ana anahtar sürümünü hedefliyor; işlenmiş kullanıcılar da yeni sürüme
+            // sarılmalı, bu yüzden kayıt atılır ve rotasyon baştan başlar
+            logger.warn("Yarım kalan rotasyon eski ana anahtar sürümüne ait (hedef={}, güncel={}); baştan başlatılıyor",
+                    checkpoint.getTargetMasterVersion(), currentVersion);
+            reset(checkpoint, currentVersion, LocalDateTime.now());
+            checkpoint = checkpointRepository.save(checkpoint);
+        }
+        while (true) {
+            List<Long> userIds = userRepository.findIdsAfter(checkpoint.getLastUserId(), PageRequest.of(0, batchSize));
+            if (userIds.isEmpty()) {
+                break;
+            }
+
+            List<Future<UserResult>> results = new ArrayList<>();
+            for (Long userId : userIds) {
+                results.add(workers.submit(() -> rotateUser(userId)));
+            }
+            for (Future<UserResult> future : results) {
+                UserResult result = future.get();
+                checkpoint.setProcessedUsers(checkpoint.getProcessedUsers() + 1);
+                checkpoint.setRewrappedKeys(checkpoint.getRewrappedKeys() + (result.rewrapped() ? 1 : 0));
+                checkpoint.setReencryptedSecrets(checkpoint.getReencryptedSecrets() + result.reencrypted());
+                checkpoint.setFailedUsers(checkpoint.getFailedUsers() + (result.failed() ? 1 : 0));
+                checkpoint.setFailedSecrets(checkpoint.getFailedSecrets() + result.failedSecrets());
+            }
+
+            checkpoint.setLastUserId(userIds.get(userIds.size() - 1));
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            checkpoint = checkpointRepository.save(checkpoint);
+            logger.info("Anahtar rotasyonu ilerliyor: lastUserId={}, işlenen={}", checkpoint.getLastUserId(), checkpoint.getProcessedUsers());
+        }
+        checkpoint.setStatus(STATUS_COMPLETED);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        checkpointRepository.save(checkpoint);
+        logger.info("Anahtar rotasyonu tamamlandı: {} kullanıcı, {} anahtar yeniden sarıldı, {} kayıt taşındı",
+                checkpoint.getProcessedUsers(), checkpoint.getRewrappedKeys(), checkpoint.getReencryptedSecrets());
+    }
+
+    private static void reset(KeyRotationCheckpoint checkpoint, int targetMasterVersion, LocalDateTime now) {
+        checkpoint.setTargetMasterVersion(targetMasterVersion);
+        checkpoint.setLastUserId(0);
+        checkpoint.setProcessedUsers(0);
+        checkpoint.setRewrappedKeys(0);
+        checkpoint.setReencryptedSecrets(0);
+        checkpoint.setFailedUsers(0);
+        checkpoint.setFailedSecrets(0);
+        checkpoint.setStatus(STATUS_RUNNING);
+        checkpoint.setStartedAt(now);
+        checkpoint.setUpdatedAt(now);
+    }
+
+    private UserResult rotateUser(Long userId) {
+        try {
+            return transactionTemplate.execute(status -> {
+                UserDataKey dataKey = dataKeyRepository.findById(userId).orElse(null);
+                boolean rewrapped = dataKey != null && dataKeyService.rewrapIfOutdated(dataKey);
+                if (dataKey != null && dataKey.isLegacyMigrated()) {
+                    return new UserResult(rewrapped, 0, 0, false);
+                }
+                MigrationResult migration = migrateLegacySecrets(userId);
+                // Bayrak yalnızca her aday kayıt gerçekten yeniden yazıldıysa konur; aksi halde kullanıcı sonraki
+                // rotasyonda yeniden taranır (ana anahtarın yalnızca son iki sürümü tutulur, kayıt kaybolmasın)
+                if (migration.failed() == 0 && migration.stale() == 0) {
+                    dataKeyRepository.findById(userId).ifPresent(key -> {
+                        key.setLegacyMigrated(true);
+                        dataKeyRepository.save(key);
+                    });
+                } else {
+                    logger.warn("Eski kayıtlar tamamen taşınamadı: userId={}, başarısız={}, değişmiş={}",
+                            userId, migration.failed(), migration.stale());
+                }
+                return new UserResult(rewrapped, migration.migrated(), migration.failed(), false);
+            });
+        } catch (Exception e) {
+            logger.error("Kullanıcı için anahtar rotasyonu başarısız: userId={}, hata={}", userId, e.getMessage());
+            return new UserResult(false, 0, 0, true);
+        }
+    }
+
+    // Değişmiş aday kalırsa kayıtlar yeniden taranır: bu arada secret kolonuna taşınan ya da kullanıcı tarafından
+    // güncellenen satır ikinci turda güncel hâliyle görülür (hâlâ ana anahtarlıysa taşınır, değilse atlanır).
+    private MigrationResult migrateLegacySecrets(Long userId) {
+        long migrated = 0;
+        MigrationResult pass = null;
+        for (int i = 0; i < MAX_LEGACY_PASSES; i++) {
+            pass = migrateLegacyPass(userId);
+            migrated += pass.migrated();
+            if (pass.stale() == 0) {
+                break;
+            }
+        }
+        // Her tur tüm kayıtları taradığı için başarısız/değişmiş sayıları son turunkidir
+        return new MigrationResult(migrated, pass.failed(), pass.stale());
+    }
+
+    // Ana anahtarla şifrelenmiş kayıtları kullanıcının veri anahtarıyla yeniden şifreler ve secret (bytea) kolonuna yazar.
+    // "AND password = ?" / "AND secret = ?" koşulu, bu arada kullanıcı tarafından değiştirilen kayıtların üzerine yazılmasını önler;
+    // 0 satır güncelleyen aday "stale" sayılır.
+    private MigrationResult migrateLegacyPass(Long userId) {
+        long migrated = 0;
+        long failed = 0;
+        long stale = 0;
+        long afterId = 0;
+        SecretKey dataKey = dataKeyService.find(userId).orElse(null); // Anahtarı olmayan kullanıcının hiçbir kaydı 0x02 değildir
+        while (true) {
+            List<Object[]> rows = passwordRepository.findSecretsByUserAfter(userId, afterId, PageRequest.of(0, batchSize));
+            if (rows.isEmpty()) {
+                return new MigrationResult(migrated, failed, stale);
+            }
+            List<Object[]> textUpdates = new ArrayList<>();
+            List<Object[]> binaryUpdates = new ArrayList<>();
+            for (Object[] row : rows) {
+                Long passwordId = (Long) row[0];
+                String legacyText = (String) row[1];
+                byte[] secret = (byte[]) row[2];
+                afterId = passwordId;
+                // Yalnızca veri anahtarıyla açılabilen kayıt taşınmış sayılır; 0x02 ile başlayan eski ECB kaydı da taşınır
+                if (secret != null ? encryptionUtil.isSealedWithDataKey(secret, dataKey)
+                        : legacyText == null || encryptionUtil.isSealedWithDataKey(legacyText, dataKey)) {
+                    continue;
+                }
+                if (dataKey == null) {
+                    dataKey = dataKeyService.getOrCreate(userId);
+                }
+                try {
+                    if (secret != null) {
+                        String plain = encryptionUtil.decrypt(secret, null);
+                        binaryUpdates.add(new Object[]{encryptionUtil.encryptToBytes(plain, dataKey), passwordId, secret});
+                    } else {
+                        String plain = encryptionUtil.decrypt(legacyText);
+                        textUpdates.add(new Object[]{encryptionUtil.encryptToBytes(plain, dataKey), passwordId, legacyText});
+                    }
+                } catch (Exception e) {
+                    failed++;
+                    logger.warn("Şifre taşınamadı: id={}, hata={}", passwordId, e.getMessage());
+                }
+            }
+            long updated = batchUpdate("UPDATE passwords SET secret = ?, password = NULL WHERE id = ? AND password = ?", textUpdates)
+                    + batchUpdate("UPDATE passwords SET secret = ? WHERE id = ? AND secret = ?", binaryUpdates);
+            migrated += updated;
+            stale += textUpdates.size() + binaryUpdates.size() - updated;
+        }
+    }
+
+    private long batchUpdate(String sql, List<Object[]> args) {
+        if (args.isEmpty()) {
+            return 0;
+        }
+        long updated = 0;
+        for (int count : jdbcTemplate.batchUpdate(sql, args)) {
+            updated += Math.max(count, 0);
+        }
+        return updated;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private record UserResult(boolean rewrapped, long reencrypted, long failedSecrets, boolean failed) {
+    }
+
+    private record MigrationResult(long migrated, long failed, long stale) {
+    }
+}
@@ -0,0 +1,118 @@
+package com.project.Trinity.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.Trinity.DTO.PasswordResponse;
+import com.project.Trinity.Entity.Status;
+import com.project.Trinity.Repository.PasswordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Kullanıcı başına en çok görüntülenen ilk K şifre, bellekte. ViewCountBuffer her flush'ta artışları buraya da uygular.
+// Listede olmayan kayıtların sayısı için bir üst sınır tutulur; bu sınır listenin en küçüğüne yetişirse
+// sıralama bellekten bilinemez ve kullanıcının listesi bir sonraki okumada DB'den yeniden yüklenir.
+// Flush ile eşzamanlı yüklemede küçük sapmalar olabilir; TTL bunları sınırlar.
+@Service
+public class MostViewedLeaderboard {
+
+    private static final Comparator<PasswordResponse> RANKING =
+            Comparator.comparingInt(PasswordResponse::getViewCount).reversed().thenComparing(PasswordResponse::getId);
+
+    private final PasswordRepository passwordRepository;
+    private final boolean enabled;
+    private final int capacity;
+    private final Cache<Long, Board> boards;
+
+    public MostViewedLeaderboard(PasswordRepository passwordRepository,
+                                 @Value("${passwords.most-viewed.cache.enabled:true}") boolean enabled,
+                                 @Value("${passwords.most-viewed.cache.size:10}") int capacity,
+                                 @Value("${passwords.most-viewed.cache.max-users:10000}") long maxUsers,
+                                 @Value("${passwords.most-viewed.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.passwordRepository = passwordRepository;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.boards = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public List<PasswordResponse> top(Long userId, int limit) {
+        if (!enabled || limit > capacity) {
+            return load(userId, limit);
+        }
+        Board board = boards.get(userId, id -> new Board(load(id, capacity), capacity));
+        return board.top(limit);
+    }
+
+    // ViewCountBuffer, artışlar DB'ye yazıldıktan sonra çağırır
+    public void recordViews(Long userId, Long passwordId, long views, LocalDateTime lastUsed) {
+        if (!enabled) {
+            return;
+        }
+        Board board = boards.getIfPresent(userId);
+        if (board != null && !board.apply(passwordId, views, lastUsed)) {
+            boards.invalidate(userId);
+        }
+    }
+
+    // Ekleme/silme/güncelleme sıralamayı ya da gösterilen alanları değiştirebilir
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onVaultChange(VaultChangeEvent event) {
+        boards.invalidate(event.userId());
+    }
+
+    private List<PasswordResponse> load(Long userId, int limit) {
+        return passwordRepository.findMostViewed(userId, Status.ACTIVE, PageRequest.of(0, limit));
+    }
+
+    private static final class Board {
+        private final int capacity;
+        private List<PasswordResponse> entries; // RANKING sırasıyla, değiştirilmez liste (okuyucular kilitsiz)
+        private long outsideUpperBound;         // Listede olmayan kayıtların görüntülenme sayısı için üst sınır
+
+        private Board(List<PasswordResponse> loaded, int capacity) {
+            this.capacity = capacity;
+            this.entries = List.copyOf(loaded);
+            // Liste dolu değilse kullanıcının tüm aktif kayıtları zaten içeride
+            this.outsideUpperBound = loaded.size() < capacity ? -1 : loaded.get(loaded.size() - 1).getViewCount();
+        }
+
+        private List<PasswordResponse> top(int limit) {
+            List<PasswordResponse> snapshot = entries;
+            return snapshot.subList(0, Math.min(limit, snapshot.size()));
+        }
+
+        // false: sıralama artık bellekten bilinemez, yeniden yüklenmeli
+        private synchronized boolean apply(Long passwordId, long views, LocalDateTime lastUsed) {
+            List<PasswordResponse> updated = new ArrayList<>(entries.size());
+            boolean found = false;
+            for (PasswordResponse entry : entries) {
+                if (entry.getId().equals(passwordId)) {
+                    updated.add(entry.withViews((int) (entry.getViewCount() + views), lastUsed));
+                    found = true;
+                } else {
+                    updated.add(entry);
+                }
+            }
+            if (!found) {
+                if (outsideUpperBound < 0) {
+                    return true; // Pasif ya da listede gösterilmeyen bir kayıt
+                }
+                outsideUpperBound += views;
+            }
+            updated.sort(RANKING);
+            entries = List.copyOf(updated);
+            return entries.size() < capacity || outsideUpperBound < entries.get(entries.size() - 1).getViewCount();
+        }
+    }
+}
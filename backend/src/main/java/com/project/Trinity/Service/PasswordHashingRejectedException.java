@@ -0,0 +1,14 @@
+package com.project.Trinity.Service;
+
+public class PasswordHashingRejectedException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public PasswordHashingRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }//Şifre hash kuyruğu dolduğunda istemciye Retry-After ile hızlı yanıt vermek için.
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
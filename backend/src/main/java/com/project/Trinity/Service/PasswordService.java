@@ -9,13 +9,26 @@ import com.project.Trinity.Repository.PasswordRepository;
 import com.project.Trinity.Util.EncryptionUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import com.project.Trinity.DTO.BulkPasswordResult;
+import com.project.Trinity.DTO.PasswordChanges;
+import com.project.Trinity.DTO.PasswordCiphertext;
+import com.project.Trinity.DTO.PasswordCursor;
+import com.project.Trinity.DTO.PasswordPage;
 import com.project.Trinity.DTO.PasswordResponse;
+import com.project.Trinity.DTO.PasswordSort;
 
+import javax.crypto.SecretKey;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -27,11 +40,35 @@ public class PasswordService {
     private final PasswordRepository passwordRepository;
     private final CategoryRepository categoryRepository;
     private final EncryptionUtil encryptionUtil; // Enjekte ediliyor
+    private final DataKeyService dataKeyService;
+    private final ViewCountBuffer viewCountBuffer;
+    private final VaultVersionService vaultVersionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MostViewedLeaderboard mostViewedLeaderboard;
+    private final ViewEventLog viewEventLog;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int maxBulkSize;
 
-    public PasswordService(PasswordRepository passwordRepository, CategoryRepository categoryRepository, EncryptionUtil encryptionUtil) {
+    public PasswordService(PasswordRepository passwordRepository, CategoryRepository categoryRepository, EncryptionUtil encryptionUtil,
+                           DataKeyService dataKeyService, ViewCountBuffer viewCountBuffer, VaultVersionService vaultVersionService,
+                           ApplicationEventPublisher eventPublisher, MostViewedLeaderboard mostViewedLeaderboard,
+                           ViewEventLog viewEventLog,
+                           @Value("${passwords.listing.default-page-size:50}") int defaultPageSize,
+                           @Value("${passwords.listing.max-page-size:200}") int maxPageSize,
+                           @Value("${passwords.bulk.max-ids:500}") int maxBulkSize) {
         this.passwordRepository = passwordRepository;
         this.categoryRepository = categoryRepository;
         this.encryptionUtil = encryptionUtil;
+        this.dataKeyService = dataKeyService;
+        this.viewCountBuffer = viewCountBuffer;
+        this.vaultVersionService = vaultVersionService;
+        this.eventPublisher = eventPublisher;
+        this.mostViewedLeaderboard = mostViewedLeaderboard;
+        this.viewEventLog = viewEventLog;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.maxBulkSize = maxBulkSize;
     }
 
     @Transactional
@@ -44,8 +81,7 @@ public class PasswordService {
 
         Password password;
         if (id != null) {
-            password = passwordRepository.findById(id)
-                    .filter(p -> p.getCreatedBy().getId().equals(currentUser.getId()))
+            password = passwordRepository.findByIdAndCreatedById(id, currentUser.getId())
                     .filter(p -> p.getStatus() == Status.ACTIVE)
                     .orElseThrow(() -> new IllegalArgumentException("Aktif şifre bulunamadı veya yetkiniz yok: " + id));
             logger.info("Şifre güncelleniyor: id={}, başlık={}", id, title);
@@ -61,7 +97,8 @@ public class PasswordService {
         password.setUsername(username);
         if (rawPassword != null && !rawPassword.isBlank()) {
             try {
-                password.setPassword(encryptionUtil.encrypt(rawPassword)); // AES ile şifreleme
+                password.setSecret(encryptionUtil.encryptToBytes(rawPassword, dataKeyService.getOrCreate(currentUser.getId()))); // Kullanıcının veri anahtarıyla AES-GCM
+                password.setPassword(null);
             } catch (Exception e) {
                 throw new RuntimeException("Şifre şifreleme hatası: " + e.getMessage());
             }
@@ -69,13 +106,16 @@ public class PasswordService {
         password.setDescription(description);
         password.setStatus(status != null ? Status.valueOf(status) : Status.ACTIVE);
 
-        return passwordRepository.save(password);
+        password.setChangeVersion(vaultVersionService.bump(currentUser.getId()));
+        Password saved = passwordRepository.save(password);
+        publish(saved, id == null ? VaultChangeEvent.Operation.CREATED : VaultChangeEvent.Operation.UPDATED);
+        return saved;
     }
 
     @Transactional(readOnly = true)
-    public List<Password> getPasswordsByCategory(String categoryName) {
+    public List<PasswordResponse> getPasswordsByCategory(String categoryName) {
         User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        return passwordRepository.findByUserAndCategoryNameAndStatus(currentUser, categoryName, Status.ACTIVE);
+        return passwordRepository.findListingByUserAndCategoryName(currentUser.getId(), categoryName, Status.ACTIVE);
     }
 
     @Transactional(readOnly = true)
@@ -87,8 +127,7 @@ public class PasswordService {
     @Transactional
     public Password updatePassword(Long id, Long categoryId, String title, String username, String rawPassword, String status, String description) {
         User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        Password existingPassword = passwordRepository.findById(id)
-            .filter(p -> p.getCreatedBy().getId().equals(currentUser.getId()))
+        Password existingPassword = passwordRepository.findByIdAndCreatedById(id, currentUser.getId())
             .filter(p -> p.getStatus() == Status.ACTIVE)
             .orElseThrow(() -> new IllegalArgumentException("Aktif şifre bulunamadı veya yetkiniz yok: " + id));
 
@@ -101,7 +140,8 @@ public class PasswordService {
         existingPassword.setUsername(username);
         if (rawPassword != null && !rawPassword.isBlank()) {
             try {
-                existingPassword.setPassword(encryptionUtil.encrypt(rawPassword));
+                existingPassword.setSecret(encryptionUtil.encryptToBytes(rawPassword, dataKeyService.getOrCreate(currentUser.getId())));
+                existingPassword.setPassword(null);
             } catch (Exception e) {
                 throw new RuntimeException("Şifre şifreleme hatası: " + e.getMessage());
             }
@@ -109,50 +149,128 @@ public class PasswordService {
         existingPassword.setStatus(Status.valueOf(status));
         existingPassword.setDescription(description);
 
-        return passwordRepository.save(existingPassword);
+        existingPassword.setChangeVersion(vaultVersionService.bump(currentUser.getId()));
+        Password saved = passwordRepository.save(existingPassword);
+        publish(saved, VaultChangeEvent.Operation.UPDATED);
+        return saved;
     }
 
     @Transactional
     public void deletePassword(Long id) {
         User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
-        Password password = passwordRepository.findById(id)
-                .filter(p -> p.getCreatedBy().getId().equals(currentUser.getId()))
+        Password password = passwordRepository.findByIdAndCreatedById(id, currentUser.getId())
                 .filter(p -> p.getStatus() == Status.ACTIVE)
                 .orElseThrow(() -> new IllegalArgumentException("Aktif şifre bulunamadı veya yetkiniz yok: " + id));
 
-        password.setStatus(Status.INACTIVE);
+        password.setStatus(Status.INACTIVE); // Delta senkronizasyonunda tombstone olarak döner
+        password.setChangeVersion(vaultVersionService.bump(currentUser.getId()));
         passwordRepository.save(password);
+        publish(password, VaultChangeEvent.Operation.DELETED);
         logger.info("Şifre pasif edildi: id={}", id);
     }
 
+    public enum BulkOperation {
+        MOVE_CATEGORY, SET_FEATURED, DEACTIVATE
+    }
+
+    // Toplu işlem: kayıt başına find + save yerine bir sahiplik sorgusu ve tek bir UPDATE.
+    // Kasa sürümü önce artırılır; kullanıcı satırının kilidi bu kullanıcının diğer yazmalarını bekletir,
+    // böylece sahiplik sorgusunun gördüğü kayıt kümesi UPDATE anına kadar değişmez.
+    @Transactional
+    public BulkPasswordResult bulkUpdate(List<Long> ids, BulkOperation operation, Long categoryId, Boolean featured) {
+        User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("En az bir şifre seçilmelidir");
+        }
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        if (requested.size() > maxBulkSize) {
+            throw new IllegalArgumentException("Tek seferde en fazla " + maxBulkSize + " şifre işlenebilir");
+        }
+        if (operation == BulkOperation.MOVE_CATEGORY) {
+            if (categoryId == null) {
+                throw new IllegalArgumentException("Kategori ID zorunludur");
+            }
+            categoryRepository.findById(categoryId)
+                    .filter(c -> c.getStatus() == Status.ACTIVE)
+                    .orElseThrow(() -> new IllegalArgumentException("Aktif kategori bulunamadı: " + categoryId));
+        }
+        if (operation == BulkOperation.SET_FEATURED && featured == null) {
+            throw new IllegalArgumentException("isFeatured zorunludur");
+        }
+
+        Long userId = currentUser.getId();
+        List<Long> owned = passwordRepository.findOwnedIds(requested, userId, Status.ACTIVE);
+        long version;
+        if (owned.isEmpty()) {
+            version = vaultVersionService.current(userId);
+        } else {
+            version = vaultVersionService.bump(userId);
+            owned = passwordRepository.findOwnedIds(owned, userId, Status.ACTIVE); // Kilit alındıktan sonra kesin küme
+            int updated = switch (operation) {
+                case MOVE_CATEGORY -> passwordRepository.moveToCategory(owned, userId, categoryId, version);
+                case SET_FEATURED -> passwordRepository.setFeatured(owned, userId, featured, version);
+                case DEACTIVATE -> passwordRepository.deactivate(owned, userId, version);
+            };
+            VaultChangeEvent.Operation eventOperation = switch (operation) {
+                case MOVE_CATEGORY -> VaultChangeEvent.Operation.UPDATED;
+                case SET_FEATURED -> VaultChangeEvent.Operation.FEATURED;
+                case DEACTIVATE -> VaultChangeEvent.Operation.DELETED;
+            };
+            for (Long id : owned) {
+                eventPublisher.publishEvent(new VaultChangeEvent(userId, id, eventOperation, version));
+            }
+            logger.info("Toplu işlem uygulandı: işlem={}, istenen={}, güncellenen={}", operation, requested.size(), updated);
+        }
+
+        Set<Long> updatedIds = new HashSet<>(owned);
+        List<BulkPasswordResult.Item> results = new ArrayList<>(requested.size());
+        for (Long id : requested) {
+            results.add(new BulkPasswordResult.Item(id, updatedIds.contains(id) ? "UPDATED" : "NOT_FOUND"));
+        }
+        return new BulkPasswordResult(version, updatedIds.size(), results);
+    }
+
+    // VaultEventHub yalnızca commit sonrası iletir; geri alınan değişiklik istemciye hiç gitmez
+    private void publish(Password password, VaultChangeEvent.Operation operation) {
+        eventPublisher.publishEvent(new VaultChangeEvent(
+                password.getCreatedBy().getId(), password.getId(), operation, password.getChangeVersion()));
+    }
+
     public long countPasswords() {
         return passwordRepository.count();
     }
 
-    
-    public String getDecryptedPassword(Long id) throws Exception {
-        Password password = passwordRepository.findById(id)
+    // Şifre gösterimi: tek SELECT (sahiplik dahil); görüntülenme ViewCountBuffer üzerinden toplu yazılır.
+    // Başka kullanıcının kaydı "bulunamadı" olarak döner.
+    @Transactional(readOnly = true)
+    public String revealPassword(Long id, Long userId) throws Exception {
+        PasswordCiphertext ciphertext = passwordRepository.findCiphertextByIdAndUserId(id, userId)
                 .orElseThrow(() -> new IllegalArgumentException("Şifre bulunamadı."));
-        return encryptionUtil.decrypt(password.getPassword());
-    }
-    
-    @Transactional
-    public void incrementViewCount(Long passwordId) {
-        Password password = passwordRepository.findById(passwordId)
-                .orElseThrow(() -> new IllegalArgumentException("Şifre bulunamadı: " + passwordId));
-        password.setViewCount(password.getViewCount() + 1);
-        password.setLastUsed(LocalDateTime.now()); // lastUsed alanını da güncelleyelim
-        passwordRepository.save(password);
+        LocalDateTime viewedAt = LocalDateTime.now();
+        viewCountBuffer.record(id, userId, viewedAt);
+        viewEventLog.record(userId, id, viewedAt);
+        return decrypt(userId, ciphertext.getLegacyText(), ciphertext.getSecret());
     }
 
+    private String decrypt(Long ownerId, String legacyText, byte[] secret) throws Exception {
+        SecretKey dataKey = dataKeyService.find(ownerId).orElse(null);
+        if (secret != null) {
+            return encryptionUtil.decrypt(secret, dataKey);
+        }
+        return encryptionUtil.decrypt(legacyText, dataKey); // Henüz taşınmamış eski kayıt
+    }
+    
+    // Sahiplik değişiklikten önce, sorguda kontrol edilir; başka kullanıcının kaydı "bulunamadı" olarak döner
     @Transactional
-    public Password toggleFeatured(Long passwordId, boolean isFeatured) {
-        Password password = passwordRepository.findById(passwordId)
+    public Password toggleFeatured(Long passwordId, Long userId, boolean isFeatured) {
+        Password password = passwordRepository.findByIdAndCreatedById(passwordId, userId)
                 .orElseThrow(() -> new IllegalArgumentException("Şifre bulunamadı: " + passwordId));
         logger.info("Öne çıkarma güncelleniyor: id={}, isFeatured={}", passwordId, isFeatured);
         password.setIsFeatured(isFeatured);
+        password.setChangeVersion(vaultVersionService.bump(userId));
         Password savedPassword = passwordRepository.save(password);
+        publish(savedPassword, VaultChangeEvent.Operation.FEATURED);
         logger.info("Kaydedilen şifre: id={}, isFeatured={}", savedPassword.getId(), savedPassword.getIsFeatured());
         return savedPassword;
     }
@@ -160,28 +278,62 @@ public class PasswordService {
 public List<PasswordResponse> getUserPasswordsAsResponse() {
     User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
     logger.debug("Kullanıcı için şifreler alınıyor: userId={}", currentUser.getId());
-    List<Password> passwords = passwordRepository.findByCreatedByAndStatus(currentUser, Status.ACTIVE);
+    // Tek sorgu: entity yerine listeleme projeksiyonu (kategori join'li)
+    List<PasswordResponse> passwords = passwordRepository.findListingByCreatedBy(currentUser.getId(), Status.ACTIVE);
     logger.debug("Toplam {} şifre bulundu", passwords.size());
-    return passwords.stream()
-            .map(PasswordResponse::new)
-            .collect(Collectors.toList());
+    return passwords;
 }
 
-    public List<Password> getMostViewedPasswordsByUser(User user, int limit) {
-        return passwordRepository.findByUserAndStatusOrderByViewCountDesc(user, Status.ACTIVE)
-                .stream()
-                .limit(limit)
-                .collect(Collectors.toList());
-    }
+    // Keyset sayfalama: categoryName null ise tüm kasa. Bir fazla satır okunarak sonraki sayfanın varlığı anlaşılır.
+    @Transactional(readOnly = true)
+    public PasswordPage getUserPasswordsPage(String categoryName, String sortParam, String cursor, Integer size) {
+        User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        PasswordSort sort = PasswordSort.fromParam(sortParam);
+        PasswordCursor after = cursor != null && !cursor.isBlank() ? PasswordCursor.decode(cursor, sort) : null;
+        int pageSize = Math.max(1, Math.min(size != null ? size : defaultPageSize, maxPageSize));
 
-    public List<Password> getFeaturedPasswordsByUser(User user) {
-        return passwordRepository.findByUserAndIsFeaturedTrueAndStatus(user, Status.ACTIVE);
+        List<PasswordResponse> rows = passwordRepository.findListingPage(
+                currentUser.getId(), categoryName, Status.ACTIVE, sort, after, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<PasswordResponse> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? PasswordCursor.after(sort, items.get(items.size() - 1)).encode() : null;
+        return new PasswordPage(items, nextCursor, hasMore);
     }
 
+    // Delta senkronizasyonu: since sonrası değişen kayıtlar ve pasif edilenlerin id'leri.
+    // Önce kasa sürümü okunur; bu sürüme kadar olan her değişiklik commit edilmiştir (sürüm artışı kullanıcı satırını kilitler).
+    // since verilmezse ya da sunucudaki sürümden büyükse tam anlık görüntü döner.
     @Transactional(readOnly = true)
-    public Password findById(Long id) {
-        return passwordRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Şifre bulunamadı: " + id));
+    public PasswordChanges getChangesSince(Long since) {
+        User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        long version = vaultVersionService.reload(currentUser.getId());
+
+        if (since == null || since > version) {
+            List<PasswordResponse> snapshot = passwordRepository.findListingChangedBetween(
+                    currentUser.getId(), -1L, version, List.of(Status.ACTIVE));
+            return new PasswordChanges(version, true, snapshot, List.of());
+        }
+
+        List<PasswordResponse> changes = new ArrayList<>();
+        List<Long> deletedIds = new ArrayList<>();
+        for (PasswordResponse row : passwordRepository.findListingChangedBetween(
+                currentUser.getId(), since, version, List.of(Status.ACTIVE, Status.INACTIVE))) {
+            if (Status.INACTIVE.getDisplayName().equals(row.getStatus())) {
+                deletedIds.add(row.getId());
+            } else {
+                changes.add(row);
+            }
+        }
+        return new PasswordChanges(version, false, changes, deletedIds);
+    }
+
+    // İlk K bellekten (MostViewedLeaderboard); kapalıysa ya da limit büyükse LIMIT'li sorgu
+    public List<PasswordResponse> getMostViewedPasswordsByUser(User user, int limit) {
+        return mostViewedLeaderboard.top(user.getId(), limit);
+    }
+
+    public List<Password> getFeaturedPasswordsByUser(User user) {
+        return passwordRepository.findByCreatedByAndIsFeaturedTrueAndStatus(user, Status.ACTIVE);
     }
 
     
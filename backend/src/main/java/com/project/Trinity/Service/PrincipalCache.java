@@ -0,0 +1,72 @@
+package com.project.Trinity.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.project.Trinity.DTO.UserPrincipal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+@Component
+public class PrincipalCache {//JWT yedek yolu (UserService.loadUserForToken) için kullanıcı adı -> UserPrincipal önbelleği.
+    // Temizleme yalnızca bu node'da çalışır. Bu yüzden girişte kullanılmaz; token yolunda her kopya security stamp'e göre
+    // doğrulanır. Kullanıcı silme (zamanlanmış dondurulmuş hesap temizliği dahil) invalidateById ile kopyayı düşürür.
+
+    private final Cache<String, UserPrincipal> cache;
+
+    public PrincipalCache(@Value("${security.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${security.principal-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    // Loader null dönerse (kullanıcı yok) sonuç önbelleğe alınmaz.
+    public UserPrincipal get(String username, Function<String, UserPrincipal> loader) {
+        return cache.get(username, loader);
+    }
+
+    public void invalidate(String username) {
+        cache.invalidate(username);
+        afterCommit(() -> cache.invalidate(username));
+    }
+
+    public void invalidateById(Long userId) {
+        Runnable removal = () -> cache.asMap().values().removeIf(p -> p.getId().equals(userId));
+        removal.run();
+        afterCommit(removal);
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("averageLoadPenaltyMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        return result;
+    }
+
+    // Commit'ten önce eski satırı yeniden yükleyen eşzamanlı istekler için commit sonrası tekrar temizle
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+}
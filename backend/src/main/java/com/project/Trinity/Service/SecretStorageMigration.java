@@ -0,0 +1,86 @@
+package com.project.Trinity.Service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// passwords.password (Base64 metin) -> passwords.secret (bytea) taşıması.
+// Şifreli veri yeniden şifrelenmez; Base64 çözümü Postgres'te yapılır, satırlar uygulamaya hiç gelmez.
+// Taşınmamış satırlar okunurken eski kolondan çözülür, bu yüzden iş arka planda ve gruplar halinde yürür.
+// Anahtar rotasyonu aynı satırları yeniden yazar; bitene kadar completion() ile bu işi bekler.
+@Service
+public class SecretStorageMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(SecretStorageMigration.class);
+
+    // "secret IS NULL" koşulu, bu arada yeni formatta kaydedilmiş satırları atlar.
+    // "id > ?" ile tablo keyset olarak yürünür; her grup baştan taranmaz, kaldığı id'den devam eder.
+    private static final String MIGRATE_BATCH =
+            "UPDATE passwords SET secret = decode(password, 'base64'), password = NULL " +
+            "WHERE id IN (SELECT id FROM passwords WHERE id > ? AND secret IS NULL AND password IS NOT NULL " +
+            "ORDER BY id LIMIT ?) RETURNING id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "secret-storage-migration");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SecretStorageMigration(JdbcTemplate jdbcTemplate,
+                                  @Value("${encryption.storage-migration.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.submit(this::run);
+    }
+
+    private void run() {
+        long migrated = 0;
+        long lastId = 0;
+        try {
+            List<Long> updated;
+            do {
+                // Her grup kendi transaction'ında commit edilir
+                updated = jdbcTemplate.queryForList(MIGRATE_BATCH, Long.class, lastId, batchSize);
+                migrated += updated.size();
+                for (Long id : updated) {
+                    lastId = Math.max(lastId, id);
+                }
+            } while (!updated.isEmpty() && !Thread.currentThread().isInterrupted());
+            if (migrated > 0) {
+                logger.info("Şifreli değerler bytea kolonuna taşındı: {} kayıt", migrated);
+            }
+        } catch (Exception e) {
+            logger.error("Şifreli değer taşıması durdu ({} kayıt taşındı): {}", migrated, e.getMessage());
+        } finally {
+            completion.complete(null); // Hata olsa da bekleyen iş takılmasın; kalan satırlar eski kolondan okunur
+        }
+    }
+
+    // Taşıma bittiğinde (ya da durduğunda) tamamlanır
+    public CompletableFuture<Void> completion() {
+        return completion;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        completion.complete(null);
+    }
+}
@@ -0,0 +1,53 @@
+package com.project.Trinity.Service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.project.Trinity.Entity.User;
+import com.project.Trinity.Repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+@Service
+public class SecurityStampService {//Access token'daki stamp'in hâlâ güncel olup olmadığını DB'ye gitmeden söyler.
+
+    private final LoadingCache<Long, Optional<Long>> stamps;
+
+    public SecurityStampService(UserRepository userRepository,
+                                @Value("${security.stamp-cache.max-size:10000}") long maxSize,
+                                @Value("${security.stamp-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.stamps = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds)) // Diğer instance'lardaki değişiklikler en geç TTL sonunda görülür (bump/evict yereldir)
+                .build(userRepository::findSecurityStampById);
+    }
+
+    public boolean isCurrent(Long userId, long tokenStamp) {
+        return stamps.get(userId)
+                .map(current -> current == tokenStamp)
+                .orElse(false); // Kullanıcı silinmişse token geçersiz sayılır
+    }
+
+    // Kullanıcının mevcut tüm access token'larını bayatlatır. Entity kaydedilmeden önce çağrılmalı.
+    public void bump(User user) {
+        user.setSecurityStamp(user.getSecurityStamp() + 1);
+        evict(user.getId());
+    }
+
+    public void evict(Long userId) {
+        stamps.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Commit'ten önce eski değeri yeniden yükleyen eşzamanlı istekler için commit sonrası tekrar temizle
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stamps.invalidate(userId);
+                }
+            });
+        }
+    }
+}
@@ -5,38 +5,48 @@ import com.project.Trinity.Entity.Role;
 import com.project.Trinity.Entity.User;
 import com.project.Trinity.Entity.AuditLog;
 import com.project.Trinity.Entity.Password;
+import com.project.Trinity.Entity.PasswordViewDaily;
 import com.project.Trinity.Entity.Status;
 import com.project.Trinity.Repository.PasswordResetTokenRepository;
 import com.project.Trinity.Repository.RefreshTokenRepository;
 import com.project.Trinity.Repository.UserRepository;
 import com.project.Trinity.Repository.AuditLogRepository;
 import com.project.Trinity.Repository.PasswordRepository;
+import com.project.Trinity.Repository.PasswordViewDailyRepository;
+import com.project.Trinity.DTO.PasswordResponse;
+import com.project.Trinity.DTO.UserPrincipal;
 import com.project.Trinity.DTO.UserResponse;
+import com.project.Trinity.DTO.UserPage;
+import com.project.Trinity.DTO.UserSummary;
 import com.project.Trinity.Service.PasswordService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Random;
 import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
@@ -44,7 +54,16 @@ public class UserService implements UserDetailsService {
     private final EmailService emailService;
     private final PasswordService passwordService;
     private final AuditLogRepository auditLogRepository;
+    private final AuditLogWriter auditLogWriter;
     private final PasswordRepository passwordRepository;
+    private final SecurityStampService securityStampService;
+    private final PrincipalCache principalCache;
+    private final DataKeyService dataKeyService;
+    private final PasswordViewDailyRepository passwordViewDailyRepository;
+    private final AvatarService avatarService;
+    private final ViewEventLog viewEventLog;
+    private final int defaultUserPageSize;
+    private final int maxUserPageSize;
 
     @Autowired
     private RefreshTokenRepository refreshTokenRepository;
@@ -56,42 +75,91 @@ public class UserService implements UserDetailsService {
             PasswordEncoder passwordEncoder,
             EmailService emailService,
             PasswordService passwordService,
-            AuditLogRepository auditLogRepository,PasswordRepository passwordRepository) {
+            AuditLogRepository auditLogRepository,PasswordRepository passwordRepository,
+            SecurityStampService securityStampService, PrincipalCache principalCache, DataKeyService dataKeyService,
+            PasswordViewDailyRepository passwordViewDailyRepository, AvatarService avatarService,
+            AuditLogWriter auditLogWriter, ViewEventLog viewEventLog,
+            @Value("${users.listing.default-page-size:50}") int defaultUserPageSize,
+            @Value("${users.listing.max-page-size:200}") int maxUserPageSize) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.emailService = emailService;
         this.tokenRepository = tokenRepository;
         this.passwordService = passwordService;
         this.auditLogRepository = auditLogRepository;
+        this.auditLogWriter = auditLogWriter;
         this.passwordRepository = passwordRepository;
+        this.securityStampService = securityStampService;
+        this.principalCache = principalCache;
+        this.dataKeyService = dataKeyService;
+        this.passwordViewDailyRepository = passwordViewDailyRepository;
+        this.avatarService = avatarService;
+        this.viewEventLog = viewEventLog;
+        this.defaultUserPageSize = defaultUserPageSize;
+        this.maxUserPageSize = maxUserPageSize;
         
     }
 
+    // Giriş (DaoAuthenticationProvider): şifre hash'i ve hesap durumu her zaman veritabanından okunur.
+    // Önbellek yalnızca bu node'da temizlenir; başka node'da sıfırlanan şifre ya da dondurulan hesap girişte kabul edilmemeli.
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        UserPrincipal principal = userRepository.findPrincipalByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Kullanıcı bulunamadı: " + username));
+        return reactivateIfRecentlyFrozen(principal);
+    }
+
+    // JWT filtresinin yedek yolu: önbellekteki kopya güncel security stamp ile karşılaştırılır. Şifre sıfırlama, dondurma
+    // ve rol değişikliği stamp'i artırdığından başka node'daki değişiklik de en geç stamp önbelleğinin TTL'i kadar sonra görülür.
+    @Transactional
+    public UserDetails loadUserForToken(String username) throws UsernameNotFoundException {
+        Function<String, UserPrincipal> loader = key -> userRepository.findPrincipalByUsername(key).orElse(null);
+        UserPrincipal principal = principalCache.get(username, loader);
+        if (principal != null && !securityStampService.isCurrent(principal.getId(), principal.getSecurityStamp())) {
+            principalCache.invalidate(username);
+            principal = principalCache.get(username, loader);
+        }
+        if (principal == null) {
+            throw new UsernameNotFoundException("Kullanıcı bulunamadı: " + username);
+        }
+        return reactivateIfRecentlyFrozen(principal);
+    }
+
+    private User reactivateIfRecentlyFrozen(UserPrincipal principal) {
+        User user = principal.toUser();
+        String username = user.getUsername();
 
         // Hesap INACTIVE ve frozenAt 30 günden eski değilse, aktif hale getir
         if (user.getStatus() == Status.INACTIVE && user.getFrozenAt() != null) {
             long daysFrozen = ChronoUnit.DAYS.between(user.getFrozenAt(), LocalDateTime.now());
             if (daysFrozen < 30) {
+                userRepository.reactivate(user.getId());
+                principalCache.invalidate(username);
                 user.setStatus(Status.ACTIVE);
                 user.setFrozenAt(null); // Dondurma zamanını sıfırla
-                userRepository.save(user);
 
                 // Denetim kaydı ekle
-                AuditLog auditLog = new AuditLog();
-                auditLog.setAction("Hesap aktif hale getirildi: " + username);
-                auditLog.setTimestamp(LocalDateTime.now());
-                auditLogRepository.save(auditLog);
+                auditLogWriter.record("Hesap aktif hale getirildi: " + username);
             }
         }
 
         return user;
     }
 
+    // Girişte eski maliyetle hash'lenmiş şifreyi güncel BCrypt maliyetiyle yeniden kaydeder (DaoAuthenticationProvider çağırır).
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newEncodedPassword) {
+        userRepository.updatePasswordHash(userDetails.getUsername(), newEncodedPassword);
+        principalCache.invalidate(userDetails.getUsername());
+        if (userDetails instanceof User user) {
+            user.setPassword(newEncodedPassword);
+            return user;
+        }
+        return loadUserByUsername(userDetails.getUsername());
+    }
+
     @Transactional
     public UserResponse createUser(String username, String password, String email, String phone) {
         // Sadece 6 parametreli fonksiyonu çağır, burada tekrar kayıt yapma!
@@ -141,10 +209,7 @@ public class UserService implements UserDetailsService {
 
         User savedUser = userRepository.save(newUser);
 
-        AuditLog auditLog = new AuditLog();
-        auditLog.setAction("Kullanıcı eklendi: " + username);
-        auditLog.setTimestamp(LocalDateTime.now());
-        auditLogRepository.save(auditLog);
+        auditLogWriter.record("Kullanıcı eklendi: " + username);
 
         // UserResponse'u status ve role ile birlikte döndür
         return new UserResponse(
@@ -160,6 +225,8 @@ public class UserService implements UserDetailsService {
     public UserResponse updateUser(Long id, String newUsername, String password, String email, String phone, String status, String role) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UsernameNotFoundException("Kullanıcı bulunamadı: " + id));
+        principalCache.invalidate(user.getUsername());
+        principalCache.invalidate(newUsername);
         user.setUsername(newUsername);
         if (password != null && !password.trim().isEmpty() && password.length() > 0) {
             user.setPassword(passwordEncoder.encode(password));
@@ -172,19 +239,54 @@ public class UserService implements UserDetailsService {
         if (role != null) {
             user.setRole(Role.valueOf(role));
         }
+        securityStampService.bump(user); // Eski access token'lar rol/durum değişikliğini görmek için DB'ye düşsün
         User updatedUser = userRepository.save(user);
 
-        AuditLog auditLog = new AuditLog();
-        auditLog.setAction("Kullanıcı güncellendi: " + newUsername);
-        auditLog.setTimestamp(LocalDateTime.now());
-        auditLogRepository.save(auditLog);
+        auditLogWriter.record("Kullanıcı güncellendi: " + newUsername);
 
         return new UserResponse(updatedUser.getId(), updatedUser.getUsername(), updatedUser.getEmail(), updatedUser.getPhone());
     }
 
-    public Page<UserResponse> getAllUsers(Pageable pageable) {
-        return userRepository.findAll(pageable)
-                .map(user -> new UserResponse(user.getId(), user.getUsername(), user.getEmail(), user.getPhone()));
+    // Yönetici listesi: id sıralı keyset sayfa. q verilirse kullanıcı adı / e-posta / telefon önekiyle aranır.
+    // İmleç son satırın id'sidir; sayfa boyutu max-page-size ile sınırlanır.
+    public UserPage getUsersPage(String query, String cursor, Integer size) {
+        long afterId = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                afterId = Long.parseLong(cursor.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Geçersiz imleç");
+            }
+        }
+        int pageSize = Math.max(1, Math.min(size != null ? size : defaultUserPageSize, maxUserPageSize));
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        String prefix = query != null && !query.isBlank() ? likePrefix(query.trim()) : null;
+        List<UserSummary> rows = prefix != null
+                ? userRepository.searchSummaryPage(prefix, afterId, limit)
+                : userRepository.findSummaryPage(afterId, limit);
+        boolean hasMore = rows.size() > pageSize;
+        List<UserSummary> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? String.valueOf(items.get(items.size() - 1).getId()) : null;
+        return new UserPage(items, nextCursor, hasMore);
+    }
+
+    // Eski düz liste yanıtı (unpaged=true); yine projeksiyon, entity yüklenmez
+    public List<UserSummary> getAllUserSummaries() {
+        return userRepository.findAllSummaries();
+    }
+
+    // Küçük harfe çevirip LIKE özel karakterlerini (\, %, _) ters bölü ile kaçışlar
+    private static String likePrefix(String query) {
+        String lowered = query.toLowerCase(Locale.ROOT);
+        StringBuilder sb = new StringBuilder(lowered.length() + 1);
+        for (char c : lowered.toCharArray()) {
+            if (c == '\\' || c == '%' || c == '_') {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+        return sb.append('%').toString();
     }
 
     public long countUsers() {
@@ -194,25 +296,23 @@ public class UserService implements UserDetailsService {
     @Transactional
     public void deleteUser(Long id) {
         refreshTokenRepository.deleteByUserId(id);
+        dataKeyService.delete(id);
+        avatarService.delete(id);
+        viewEventLog.deleteUser(id);
         userRepository.deleteById(id);
+        securityStampService.evict(id);
+        principalCache.invalidateById(id);
 
-        AuditLog auditLog = new AuditLog();
-        auditLog.setAction("Kullanıcı silindi: ID " + id);
-        auditLog.setTimestamp(LocalDateTime.now());
-        auditLogRepository.save(auditLog);
+        auditLogWriter.record("Kullanıcı silindi: ID " + id);
     }
 
     @Transactional
     public void uploadProfilePicture(String username, byte[] imageData) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Kullanıcı bulunamadı: " + username));
-        user.setProfilePicture(imageData);
-        userRepository.save(user);
+        avatarService.store(user.getId(), imageData);
 
-        AuditLog auditLog = new AuditLog();
-        auditLog.setAction("Profil resmi güncellendi: " + username);
-        auditLog.setTimestamp(LocalDateTime.now());
-        auditLogRepository.save(auditLog);
+        auditLogWriter.record("Profil resmi güncellendi: " + username);
     }
 
     @Transactional
@@ -221,12 +321,11 @@ public class UserService implements UserDetailsService {
                 .orElseThrow(() -> new UsernameNotFoundException("Kullanıcı bulunamadı: " + username));
         user.setStatus(Status.INACTIVE); // FROZEN yerine INACTIVE kullanıyoruz
         user.setFrozenAt(LocalDateTime.now());
+        securityStampService.bump(user);
         userRepository.save(user);
+        principalCache.invalidate(username);
 
-        AuditLog auditLog = new AuditLog();
-        auditLog.setAction("Hesap donduruldu: " + username);
-        auditLog.setTimestamp(LocalDateTime.now());
-        auditLogRepository.save(auditLog);
+        auditLogWriter.record("Hesap donduruldu: " + username);
     }
 
     public void sendResetLink(String emailOrPhone) {
@@ -261,12 +360,11 @@ public class UserService implements UserDetailsService {
         }
 
         user.setPassword(passwordEncoder.encode(newPassword));
+        securityStampService.bump(user); // Şifre sıfırlanınca açık oturumların token'ları da bayatlar
         userRepository.save(user);
+        principalCache.invalidate(user.getUsername());
 
-        AuditLog auditLog = new AuditLog();
-        auditLog.setAction("Şifre sıfırlandı: " + user.getUsername());
-        auditLog.setTimestamp(LocalDateTime.now());
-        auditLogRepository.save(auditLog);
+        auditLogWriter.record("Şifre sıfırlandı: " + user.getUsername());
 
         tokenRepository.delete(resetToken);
     }
@@ -294,28 +392,18 @@ public class UserService implements UserDetailsService {
                 .collect(Collectors.toList());
     }
     
-    public Map<String, Long> getPasswordViewTrend(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("Kullanıcı bulunamadı: " + username));
-        LocalDateTime startDate = LocalDateTime.now().minusDays(7);
-       
-		List<Password> passwords = passwordRepository.findByUser(user);
+    // Son 7 gün (bugün dahil), günlük toplamlar tablosundan; ham olaylara ve kasaya dokunmaz
+    public Map<String, Long> getPasswordViewTrend(Long userId) {
+        LocalDate today = LocalDate.now();
+        LocalDate startDate = today.minusDays(6);
 
         Map<String, Long> trend = new TreeMap<>();
-        LocalDateTime current = startDate;
-        while (current.isBefore(LocalDateTime.now())) {
-            String dateKey = current.format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-            trend.put(dateKey, 0L);
-            current = current.plusDays(1);
+        for (LocalDate day = startDate; !day.isAfter(today); day = day.plusDays(1)) {
+            trend.put(day.format(DateTimeFormatter.ISO_LOCAL_DATE), 0L);
         }
-
-        for (Password password : passwords) {
-            if (password.getLastUsed() != null && password.getLastUsed().isAfter(startDate)) {
-                String date = password.getLastUsed().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-                trend.put(date, trend.getOrDefault(date, 0L) + 1);
-            }
+        for (PasswordViewDaily daily : passwordViewDailyRepository.findByUserIdAndDayGreaterThanEqualOrderByDay(userId, startDate)) {
+            trend.put(daily.getDay().format(DateTimeFormatter.ISO_LOCAL_DATE), daily.getViews());
         }
-
         return trend;
     }
     
@@ -324,7 +412,7 @@ public class UserService implements UserDetailsService {
                 .orElseThrow(() -> new UsernameNotFoundException("Kullanıcı bulunamadı: " + username));
         return passwordService.getMostViewedPasswordsByUser(user, 3)
                 .stream()
-                .map(Password::getTitle)
+                .map(PasswordResponse::getTitle)
                 .collect(Collectors.toList());
     }
     
@@ -0,0 +1,10 @@
+package com.project.Trinity.Service;
+
+// PasswordService'in transaction içinde yayınladığı kasa değişikliği; VaultEventHub commit sonrası istemcilere iletir.
+// IMPORTED toplu eklemeyi bildirir, passwordId null'dır (istemci delta senkronizasyonu yapar).
+public record VaultChangeEvent(Long userId, Long passwordId, Operation operation, long version) {
+
+    public enum Operation {
+        CREATED, UPDATED, DELETED, FEATURED, IMPORTED
+    }
+}
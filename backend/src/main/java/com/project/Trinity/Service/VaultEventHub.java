@@ -0,0 +1,177 @@
+package com.project.Trinity.Service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Kullanıcı başına SSE bağlantılarını tutar ve kasa değişikliklerini commit sonrası iletir.
+// Yayınlayan thread hiçbir zaman ağa yazmaz: bildirim bağlantının sınırlı kuyruğuna eklenir, gönderimi ortak
+// gönderici havuzu yapar. Kuyruğu dolan (yavaş okuyan) istemcinin bağlantısı kapatılır; istemci yeniden bağlanıp
+// kaçırdıklarını /passwords/changes ile alır. Keep-alive'lar tek bir zamanlayıcıdan gelir.
+@Service
+public class VaultEventHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(VaultEventHub.class);
+    private static final Object KEEP_ALIVE = new Object();
+
+    private final Map<Long, Set<Connection>> connections = new ConcurrentHashMap<>();
+    private final long timeoutMillis;
+    private final int bufferSize;
+
+    private final ExecutorService senders;
+    private final ScheduledExecutorService keepAliveScheduler;
+
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final LongAdder sentNotices = new LongAdder();
+    private final LongAdder slowConsumerDisconnects = new LongAdder();
+
+    public VaultEventHub(@Value("${vault.events.timeout-ms:1800000}") long timeoutMillis,
+                         @Value("${vault.events.buffer-size:32}") int bufferSize,
+                         @Value("${vault.events.sender-threads:2}") int senderThreads,
+                         @Value("${vault.events.keep-alive-seconds:25}") long keepAliveSeconds) {
+        this.timeoutMillis = timeoutMillis;
+        this.bufferSize = bufferSize;
+        AtomicInteger senderIndex = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads,
+                runnable -> daemon(runnable, "vault-events-" + senderIndex.incrementAndGet()));
+        this.keepAliveScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable, "vault-events-keepalive"));
+        this.keepAliveScheduler.scheduleAtFixedRate(this::sendKeepAlives, keepAliveSeconds, keepAliveSeconds, TimeUnit.SECONDS);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Connection connection = new Connection(userId, emitter, bufferSize);
+        connections.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(connection);
+        openConnections.incrementAndGet();
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> remove(connection));
+        emitter.onError(error -> remove(connection));
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onVaultChange(VaultChangeEvent event) {
+        Set<Connection> userConnections = connections.get(event.userId());
+        if (userConnections == null) {
+            return;
+        }
+        Map<String, Object> notice = new LinkedHashMap<>();
+        notice.put("id", event.passwordId());
+        notice.put("operation", event.operation().name());
+        notice.put("version", event.version());
+        for (Connection connection : userConnections) {
+            enqueue(connection, notice);
+        }
+    }
+
+    private void sendKeepAlives() {
+        for (Set<Connection> userConnections : connections.values()) {
+            for (Connection connection : userConnections) {
+                enqueue(connection, KEEP_ALIVE);
+            }
+        }
+    }
+
+    private void enqueue(Connection connection, Object message) {
+        if (!connection.queue.offer(message)) {
+            slowConsumerDisconnects.increment();
+            logger.info("Yavaş SSE istemcisi kapatılıyor: userId={}", connection.userId);
+            connection.emitter.complete();
+            remove(connection);
+            return;
+        }
+        if (connection.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(connection));
+        }
+    }
+
+    // Bir bağlantı için aynı anda tek gönderici çalışır; sıra korunur
+    private void drain(Connection connection) {
+        try {
+            Object message;
+            while ((message = connection.queue.poll()) != null) {
+                if (message == KEEP_ALIVE) {
+                    connection.emitter.send(SseEmitter.event().comment("keep-alive"));
+                } else {
+                    connection.emitter.send(SseEmitter.event().name("vault-change").data(message, MediaType.APPLICATION_JSON));
+                    sentNotices.increment();
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // İstemci bağlantıyı kapatmış
+            connection.emitter.completeWithError(e);
+            remove(connection);
+            return;
+        } finally {
+            connection.draining.set(false);
+        }
+        if (!connection.queue.isEmpty() && connection.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(connection)); // Döngü bittikten sonra eklenen mesajlar
+        }
+    }
+
+    private void remove(Connection connection) {
+        Set<Connection> userConnections = connections.get(connection.userId);
+        if (userConnections != null && userConnections.remove(connection)) {
+            openConnections.decrementAndGet();
+            connections.computeIfPresent(connection.userId, (id, set) -> set.isEmpty() ? null : set);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("openConnections", openConnections.get());
+        stats.put("connectedUsers", connections.size());
+        stats.put("sentNotices", sentNotices.sum());
+        stats.put("slowConsumerDisconnects", slowConsumerDisconnects.sum());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        keepAliveScheduler.shutdownNow();
+        senders.shutdownNow();
+        connections.values().forEach(userConnections -> userConnections.forEach(connection -> connection.emitter.complete()));
+        connections.clear();
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static final class Connection {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<Object> queue;
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+
+        private Connection(Long userId, SseEmitter emitter, int bufferSize) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
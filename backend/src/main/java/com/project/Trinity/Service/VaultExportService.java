@@ -0,0 +1,177 @@
+package com.project.Trinity.Service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.project.Trinity.DTO.PasswordExportRow;
+import com.project.Trinity.Entity.Status;
+import com.project.Trinity.Repository.PasswordRepository;
+import com.project.Trinity.Util.EncryptionUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.SecretKey;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+// Kasayı dışa aktarır: kayıtlar id sırasıyla gruplar halinde okunur, çözülür ve çıktıya hemen yazılır.
+// Bellekte aynı anda en fazla bir grup bulunur; her grup kendi kısa read-only transaction'ında okunur,
+// böylece yavaş bir istemci veritabanı bağlantısını akış boyunca tutmaz.
+@Service
+public class VaultExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VaultExportService.class);
+
+    private static final String[] CSV_HEADER = {"title", "username", "password", "category", "description", "featured"};
+
+    public enum Format {
+        JSON, CSV
+    }
+
+    private final PasswordRepository passwordRepository;
+    private final EncryptionUtil encryptionUtil;
+    private final DataKeyService dataKeyService;
+    private final TransactionTemplate readOnly;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final int batchSize;
+
+    public VaultExportService(PasswordRepository passwordRepository, EncryptionUtil encryptionUtil,
+                              DataKeyService dataKeyService, PlatformTransactionManager transactionManager,
+                              @Value("${passwords.export.batch-size:200}") int batchSize) {
+        this.passwordRepository = passwordRepository;
+        this.encryptionUtil = encryptionUtil;
+        this.dataKeyService = dataKeyService;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.batchSize = batchSize;
+    }
+
+    public static Format parseFormat(String format) {
+        if (format == null || format.isBlank()) {
+            return Format.JSON;
+        }
+        try {
+            return Format.valueOf(format.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Geçersiz dışa aktarma formatı: " + format);
+        }
+    }
+
+    // userId istek thread'inde alınmalı: akış async thread'de yazılır, SecurityContext orada yoktur.
+    // passphrase verilirse çıktı parolayla şifrelenir (bkz. EncryptionUtil.passphraseEncryptingStream) ve dizi sonra temizlenir.
+    public void export(Long userId, Format format, char[] passphrase, OutputStream target) throws IOException {
+        long started = System.currentTimeMillis();
+        OutputStream out = target;
+        try {
+            if (passphrase != null) {
+                out = encryptionUtil.passphraseEncryptingStream(target, passphrase);
+            }
+        } catch (java.security.GeneralSecurityException e) {
+            throw new IllegalStateException("Dışa aktarma şifrelemesi başlatılamadı", e);
+        } finally {
+            if (passphrase != null) {
+                Arrays.fill(passphrase, '\0');
+            }
+        }
+
+        SecretKey dataKey = dataKeyService.find(userId).orElse(null);
+        long count;
+        try (OutputStream stream = out) {
+            count = format == Format.CSV ? writeCsv(userId, dataKey, stream) : writeJson(userId, dataKey, stream);
+        }
+        logger.info("Kasa dışa aktarıldı: userId={}, format={}, kayıt={}, şifreli={}, süre={}ms",
+                userId, format, count, passphrase != null, System.currentTimeMillis() - started);
+    }
+
+    private long writeJson(Long userId, SecretKey dataKey, OutputStream out) throws IOException {
+        long count = 0;
+        // Kapanış çağıranda: şifreli akışta GCM etiketi ancak en dıştaki close() ile yazılır
+        JsonGenerator json = jsonFactory.createGenerator(out, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        json.writeStartArray();
+        Long afterId = 0L;
+        List<PasswordExportRow> batch;
+        while (!(batch = nextBatch(userId, afterId)).isEmpty()) {
+            for (PasswordExportRow row : batch) {
+                json.writeStartObject();
+                json.writeStringField("title", row.getTitle());
+                json.writeStringField("username", row.getUsername());
+                json.writeStringField("password", decrypt(row, dataKey));
+                json.writeStringField("category", row.getCategoryName());
+                json.writeStringField("description", row.getDescription());
+                json.writeBooleanField("featured", row.isFeatured());
+                json.writeEndObject();
+                count++;
+            }
+            json.flush(); // Grup istemciye gider, çıktı bellekte birikmez
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+        json.writeEndArray();
+        json.flush();
+        return count;
+    }
+
+    private long writeCsv(Long userId, SecretKey dataKey, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeCsvLine(writer, CSV_HEADER);
+        Long afterId = 0L;
+        List<PasswordExportRow> batch;
+        while (!(batch = nextBatch(userId, afterId)).isEmpty()) {
+            for (PasswordExportRow row : batch) {
+                writeCsvLine(writer, new String[]{row.getTitle(), row.getUsername(), decrypt(row, dataKey),
+                        row.getCategoryName(), row.getDescription(), String.valueOf(row.isFeatured())});
+                count++;
+            }
+            writer.flush();
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+        writer.flush();
+        return count;
+    }
+
+    private List<PasswordExportRow> nextBatch(Long userId, Long afterId) {
+        return readOnly.execute(status -> passwordRepository.findExportBatch(
+                userId, Status.ACTIVE, afterId, PageRequest.of(0, batchSize)));
+    }
+
+    private String decrypt(PasswordExportRow row, SecretKey dataKey) {
+        try {
+            if (row.getSecret() != null) {
+                return encryptionUtil.decrypt(row.getSecret(), dataKey);
+            }
+            return encryptionUtil.decrypt(row.getLegacyText(), dataKey);
+        } catch (Exception e) {
+            throw new IllegalStateException("Şifre çözülemedi: id=" + row.getId(), e);
+        }
+    }
+
+    // RFC 4180: virgül, tırnak veya satır sonu içeren alanlar tırnak içine alınır
+    private static void writeCsvLine(Writer writer, String[] fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String field = fields[i] != null ? fields[i] : "";
+            if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0 || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(field.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(field);
+            }
+        }
+        writer.write("\r\n");
+    }
+}
@@ -0,0 +1,231 @@
+package com.project.Trinity.Service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// İçe aktarma dosyasını kayıt kayıt okur; dosyanın tamamı hiçbir zaman belleğe alınmaz.
+// Diğer parola yöneticilerinin dışa aktarmalarındaki yaygın kolon adları tanınır (title/name, login_password, notes ...).
+abstract class VaultImportReader implements Closeable {
+
+    private static final Map<String, String> FIELD_ALIASES = new HashMap<>();
+
+    static {
+        alias("title", "title", "name", "account");
+        alias("username", "username", "login", "login_username", "user", "email");
+        alias("password", "password", "login_password", "pass");
+        alias("category", "category", "folder", "group", "grouping");
+        alias("description", "description", "notes", "note", "extra", "comment");
+        alias("url", "url", "login_uri", "website", "uri");
+        alias("featured", "featured", "favorite", "fav");
+    }
+
+    private static void alias(String field, String... names) {
+        for (String name : names) {
+            FIELD_ALIASES.put(name, field);
+        }
+    }
+
+    // Okunan bir kayıt; alanlar doğrulanmamıştır
+    static final class Row {
+        final long number;
+        final Map<String, String> fields = new HashMap<>();
+
+        Row(long number) {
+            this.number = number;
+        }
+
+        String get(String field) {
+            return fields.get(field);
+        }
+
+        void put(String name, String value) {
+            String field = FIELD_ALIASES.get(name.trim().toLowerCase());
+            if (field != null && value != null && !fields.containsKey(field)) {
+                fields.put(field, value);
+            }
+        }
+    }
+
+    protected long rowNumber;
+
+    // Dosya sonunda null döner
+    abstract Row next() throws IOException;
+
+    long lastRowNumber() {
+        return rowNumber;
+    }
+
+    static VaultImportReader open(VaultImportService.Format format, InputStream in) throws IOException {
+        return format == VaultImportService.Format.CSV ? new Csv(in) : new Json(in);
+    }
+
+    // RFC 4180: tırnaklı alanlarda virgül, çift tırnak ("") ve satır sonu olabilir. İlk satır başlıktır.
+    static final class Csv extends VaultImportReader {
+        private final BufferedReader reader;
+        private final List<String> header;
+
+        Csv(InputStream in) throws IOException {
+            this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            reader.mark(1);
+            if (reader.read() != '\uFEFF') { // Excel'in eklediği BOM
+                reader.reset();
+            }
+            List<String> names = readRecord();
+            if (names == null) {
+                throw new IllegalArgumentException("CSV dosyası boş");
+            }
+            this.header = names;
+        }
+
+        @Override
+        Row next() throws IOException {
+            List<String> values;
+            do {
+                values = readRecord();
+            } while (values != null && values.size() == 1 && values.get(0).isEmpty()); // Boş satırlar atlanır
+            if (values == null) {
+                return null;
+            }
+            Row row = new Row(++rowNumber);
+            for (int i = 0; i < header.size() && i < values.size(); i++) {
+                row.put(header.get(i), values.get(i));
+            }
+            return row;
+        }
+
+        private List<String> readRecord() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> values = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IOException("Kapanmamış tırnak");
+                    }
+                    if (c == '"') {
+                        reader.mark(1);
+                        int following = reader.read();
+                        if (following == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            reader.reset();
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    break;
+                } else if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                    break;
+                } else {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+            values.add(field.toString());
+            return values;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    // Kök dizi ya da kök nesnedeki ilk kayıt dizisi (items/passwords/entries/data) okunur; her eleman ayrı ağaç olarak.
+    // Bitwarden tarzı iç içe "login": {username, password, uris: [{uri}]} de desteklenir.
+    static final class Json extends VaultImportReader {
+        private static final Set<String> ARRAY_FIELDS = Set.of("items", "passwords", "entries", "data");
+        private static final ObjectMapper MAPPER = new ObjectMapper();
+
+        private final JsonParser parser;
+
+        Json(InputStream in) throws IOException {
+            this.parser = new JsonFactory(MAPPER).createParser(in);
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT) {
+                token = seekArrayField();
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("JSON dosyasında kayıt dizisi bulunamadı");
+            }
+        }
+
+        private JsonToken seekArrayField() throws IOException {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.START_ARRAY && ARRAY_FIELDS.contains(name.toLowerCase())) {
+                    return value;
+                }
+                parser.skipChildren();
+            }
+            return null;
+        }
+
+        @Override
+        Row next() throws IOException {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                return null;
+            }
+            JsonNode node = MAPPER.readTree(parser);
+            Row row = new Row(++rowNumber);
+            if (node == null || !node.isObject()) {
+                return row; // Doğrulamada eksik alan olarak raporlanır
+            }
+            JsonNode login = node.get("login");
+            if (login != null && login.isObject()) {
+                putFields(row, login);
+                JsonNode uris = login.get("uris");
+                if (uris != null && uris.isArray() && uris.size() > 0 && uris.get(0).hasNonNull("uri")) {
+                    row.put("url", uris.get(0).get("uri").asText());
+                }
+            }
+            putFields(row, node);
+            return row;
+        }
+
+        private static void putFields(Row row, JsonNode node) {
+            node.fields().forEachRemaining(entry -> {
+                if (entry.getValue().isValueNode() && !entry.getValue().isNull()) {
+                    row.put(entry.getKey(), entry.getValue().asText());
+                }
+            });
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.project.Trinity.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.project.Trinity.DTO.ImportResult;
+import com.project.Trinity.Entity.Category;
+import com.project.Trinity.Entity.Status;
+import com.project.Trinity.Repository.CategoryRepository;
+import com.project.Trinity.Util.EncryptionUtil;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Diğer parola yöneticilerinden içe aktarma. Dosya akış halinde okunur ve batch-size'lık gruplar halinde işlenir:
+// kategoriler bir kez çözülür, şifreleme sınırlı bir havuzda paralel yapılır, kayıtlar tek JDBC batch INSERT ile yazılır.
+// Her grup kendi transaction'ında commit edilir; hatalı satırlar raporlanır, içe aktarmanın geri kalanı sürer.
+@Service
+public class VaultImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VaultImportService.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO passwords (user_id, created_by, category_id, title, username, secret, description, status, " +
+            "is_featured, view_count, change_version) VALUES (?, ?, ?, ?, ?, ?, ?, 'ACTIVE', ?, 0, ?)";
+
+    public enum Format {
+        JSON, CSV
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CategoryRepository categoryRepository;
+    private final EncryptionUtil encryptionUtil;
+    private final DataKeyService dataKeyService;
+    private final VaultVersionService vaultVersionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor encryptPool;
+    private final int batchSize;
+    private final int maxRows;
+    private final int maxReportedErrors;
+
+    public VaultImportService(JdbcTemplate jdbcTemplate, CategoryRepository categoryRepository, EncryptionUtil encryptionUtil,
+                              DataKeyService dataKeyService, VaultVersionService vaultVersionService,
+                              ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                              @Value("${passwords.import.batch-size:500}") int batchSize,
+                              @Value("${passwords.import.max-rows:50000}") int maxRows,
+                              @Value("${passwords.import.max-reported-errors:1000}") int maxReportedErrors,
+                              @Value("${passwords.import.encrypt-threads:0}") int encryptThreads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.categoryRepository = categoryRepository;
+        this.encryptionUtil = encryptionUtil;
+        this.dataKeyService = dataKeyService;
+        this.vaultVersionService = vaultVersionService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxRows = maxRows;
+        this.maxReportedErrors = maxReportedErrors;
+
+        // Tüm içe aktarmalar aynı havuzu paylaşır; kuyruk dolarsa şifreleme çağıran thread'de yapılır (geri basınç)
+        int threads = encryptThreads > 0 ? encryptThreads : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.encryptPool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(batchSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "vault-import-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.encryptPool.allowCoreThreadTimeOut(true);
+    }
+
+    public static Format parseFormat(String format, String filename) {
+        if (format != null && !format.isBlank()) {
+            try {
+                return Format.valueOf(format.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Geçersiz içe aktarma formatı: " + format);
+            }
+        }
+        return filename != null && filename.toLowerCase().endsWith(".csv") ? Format.CSV : Format.JSON;
+    }
+
+    public ImportResult importVault(Long userId, Format format, InputStream in, Long defaultCategoryId) throws IOException {
+        long started = System.currentTimeMillis();
+        Map<String, Long> categories = new HashMap<>();
+        for (Category category : categoryRepository.findByStatus(Status.ACTIVE)) {
+            categories.put(category.getName().trim().toLowerCase(), category.getId());
+        }
+        if (defaultCategoryId != null && !categories.containsValue(defaultCategoryId)) {
+            throw new IllegalArgumentException("Aktif kategori bulunamadı: " + defaultCategoryId);
+        }
+        SecretKey dataKey = dataKeyService.getOrCreate(userId);
+
+        ImportResult result = new ImportResult();
+        result.setVersion(vaultVersionService.current(userId));
+        try (VaultImportReader reader = VaultImportReader.open(format, in)) {
+            List<Pending> batch = new ArrayList<>(batchSize);
+            VaultImportReader.Row row;
+            while (true) {
+                try {
+                    row = reader.next();
+                } catch (IOException e) {
+                    // Bozuk dosya: okunabilen kısım kaydedilir, kalan satırlar için tek hata döner
+                    String reason = e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage();
+                    addError(result, reader.lastRowNumber() + 1, "Dosya okunamadı: " + reason);
+                    result.setComplete(false);
+                    break;
+                }
+                if (row == null) {
+                    break;
+                }
+                if (row.number > maxRows) {
+                    addError(result, row.number, "En fazla " + maxRows + " kayıt içe aktarılabilir; kalan kayıtlar atlandı");
+                    result.setComplete(false);
+                    break;
+                }
+                Pending pending = validate(row, categories, defaultCategoryId, result);
+                if (pending != null) {
+                    batch.add(pending);
+                }
+                if (batch.size() >= batchSize) {
+                    writeBatch(userId, dataKey, batch, result);
+                    batch.clear();
+                }
+            }
+            writeBatch(userId, dataKey, batch, result);
+        }
+        logger.info("Kasa içe aktarıldı: userId={}, format={}, eklenen={}, hatalı={}, süre={}ms",
+                userId, format, result.getImported(), result.getFailed(), System.currentTimeMillis() - started);
+        return result;
+    }
+
+    // Alan sınırları Password entity kolonlarıyla aynı
+    private Pending validate(VaultImportReader.Row row, Map<String, Long> categories, Long defaultCategoryId, ImportResult result) {
+        String title = trim(row.get("title"));
+        String username = trim(row.get("username"));
+        String password = row.get("password");
+        String description = trim(row.get("description"));
+        String url = trim(row.get("url"));
+        if (description == null && url != null) {
+            description = url;
+        }
+
+        String error = null;
+        Long categoryId = defaultCategoryId;
+        String categoryName = trim(row.get("category"));
+        if (categoryName != null && categories.containsKey(categoryName.toLowerCase())) {
+            categoryId = categories.get(categoryName.toLowerCase());
+        }
+        if (title == null) {
+            error = "Başlık zorunludur";
+        } else if (title.length() > 200) {
+            error = "Başlık 200 karakterden uzun olamaz";
+        } else if (username == null) {
+            error = "Kullanıcı girişi zorunludur";
+        } else if (username.length() > 100) {
+            error = "Kullanıcı girişi 100 karakterden uzun olamaz";
+        } else if (password == null || password.isBlank()) {
+            error = "Şifre zorunludur";
+        } else if (password.length() > 100) {
+            error = "Şifre 100 karakterden uzun olamaz";
+        } else if (description != null && description.length() > 500) {
+            error = "Açıklama 500 karakterden uzun olamaz";
+        } else if (categoryId == null) {
+            error = categoryName != null ? "Kategori bulunamadı: " + categoryName : "Kategori zorunludur";
+        }
+        if (error != null) {
+            addError(result, row.number, error);
+            return null;
+        }
+        boolean featured = "true".equalsIgnoreCase(trim(row.get("featured"))) || "1".equals(trim(row.get("featured")));
+        return new Pending(row.number, categoryId, title, username, password, description, featured);
+    }
+
+    private void writeBatch(Long userId, SecretKey dataKey, List<Pending> batch, ImportResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<CompletableFuture<byte[]>> secrets = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            secrets.add(CompletableFuture.supplyAsync(() -> encrypt(pending.password, dataKey), encryptPool));
+        }
+        List<Pending> encrypted = new ArrayList<>(batch.size());
+        List<byte[]> encryptedSecrets = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                encryptedSecrets.add(secrets.get(i).join());
+                encrypted.add(batch.get(i));
+            } catch (Exception e) {
+                addError(result, batch.get(i).rowNumber, "Şifre şifrelenemedi");
+            }
+        }
+        if (encrypted.isEmpty()) {
+            return;
+        }
+
+        try {
+            Long version = transactionTemplate.execute(status -> {
+                long newVersion = vaultVersionService.bump(userId);
+                List<Object[]> args = new ArrayList<>(encrypted.size());
+                for (int i = 0; i < encrypted.size(); i++) {
+                    Pending pending = encrypted.get(i);
+                    args.add(new Object[]{userId, userId, pending.categoryId, pending.title, pending.username,
+                            encryptedSecrets.get(i), pending.description, pending.featured, newVersion});
+                }
+                jdbcTemplate.batchUpdate(INSERT_SQL, args);
+                // Kayıt başına bildirim yerine tek bildirim: istemci delta senkronizasyonuyla yeni kayıtları çeker
+                eventPublisher.publishEvent(new VaultChangeEvent(userId, null, VaultChangeEvent.Operation.IMPORTED, newVersion));
+                return newVersion;
+            });
+            result.setImported(result.getImported() + encrypted.size());
+            result.setVersion(version);
+        } catch (Exception e) {
+            logger.error("İçe aktarma grubu yazılamadı ({} kayıt): {}", encrypted.size(), e.getMessage());
+            for (Pending pending : encrypted) {
+                addError(result, pending.rowNumber, "Kaydedilemedi");
+            }
+        }
+    }
+
+    private byte[] encrypt(String password, SecretKey dataKey) {
+        try {
+            return encryptionUtil.encryptToBytes(password, dataKey);
+        } catch (Exception e) {
+            throw new IllegalStateException("Şifre şifreleme hatası", e);
+        }
+    }
+
+    private void addError(ImportResult result, long rowNumber, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add(new ImportResult.RowError(rowNumber, message));
+        }
+    }
+
+    private static String trim(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        encryptPool.shutdownNow();
+    }
+
+    private record Pending(long rowNumber, Long categoryId, String title, String username, String password,
+                           String description, boolean featured) {
+    }
+}
@@ -0,0 +1,76 @@
+package com.project.Trinity.Service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.project.Trinity.Repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+
+@Service
+public class VaultVersionService {//Kullanıcı başına kasa sürümü: kasadaki her değişiklikte artar, liste yanıtlarının ETag'i buradan üretilir.
+
+    private final UserRepository userRepository;
+    private final LoadingCache<Long, Long> versions;
+
+    public VaultVersionService(UserRepository userRepository,
+                               @Value("${vault.version-cache.max-size:10000}") long maxSize,
+                               @Value("${vault.version-cache.ttl-seconds:5}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds)) // Diğer instance'lardaki artışlar en geç TTL sonunda görülür
+                .build(id -> userRepository.findVaultVersionById(id).orElse(0L));
+    }
+
+    public long current(Long userId) {
+        return versions.get(userId);
+    }
+
+    // Önbelleği atlayarak commit edilmiş son sürümü okur (delta senkronizasyonu için kesin değer gerekir)
+    public long reload(Long userId) {
+        long version = userRepository.findVaultVersionById(userId).orElse(0L);
+        versions.put(userId, version);
+        return version;
+    }
+
+    // Strong ETag: kullanıcı + sürüm. Sürüm veriden önce okunmalı; aksi halde eski sürümle yeni veri eşleşebilir.
+    public String etag(Long userId) {
+        return "\"" + userId + "-" + current(userId) + "\"";
+    }
+
+    // Çağıranın transaction'ında artırır; satır kilidi aynı kullanıcının değişikliklerini sıraya koyar.
+    @Transactional
+    public long bump(Long userId) {
+        userRepository.incrementVaultVersion(userId);
+        evict(userId);
+        return userRepository.findVaultVersionById(userId).orElse(0L);
+    }
+
+    @Transactional
+    public void bumpAll(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        userRepository.incrementVaultVersions(userIds);
+        userIds.forEach(this::evict);
+    }
+
+    private void evict(Long userId) {
+        versions.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Commit'ten önce eski sürümü yeniden yükleyen eşzamanlı istekler için commit sonrası tekrar temizle
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versions.invalidate(userId);
+                }
+            });
+        }
+    }
+}
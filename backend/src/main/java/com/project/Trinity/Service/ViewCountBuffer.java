@@ -0,0 +1,167 @@
+package com.project.Trinity.Service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Şifre görüntülenmelerini bellekte toplar ve periyodik olarak tek batch UPDATE ile yazar.
+// Sayaç artışı DB'de "view_count = view_count + ?" ile yapıldığı için eşzamanlı istekler birbirinin güncellemesini ezmez.
+@Service
+public class ViewCountBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViewCountBuffer.class);
+
+    private static final String FLUSH_SQL =
+            "UPDATE passwords SET view_count = view_count + ?, last_used = GREATEST(last_used, ?) WHERE id = ?";
+
+    // Kayıt ve boşaltma ConcurrentHashMap'in anahtar bazlı kilidiyle (compute/remove) yapılır:
+    // farklı şifreler farklı bölmelere düşer, boşaltılan bir girişe sonradan artış eklenemez.
+    private final ConcurrentHashMap<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final VaultVersionService vaultVersionService;
+    private final MostViewedLeaderboard mostViewedLeaderboard;
+
+    private final LongAdder recordedViews = new LongAdder();
+    private final LongAdder flushedViews = new LongAdder();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private volatile long lastFlushAtMillis = System.currentTimeMillis();
+    private volatile long lastFlushDurationMillis;
+
+    public ViewCountBuffer(JdbcTemplate jdbcTemplate, VaultVersionService vaultVersionService,
+                           MostViewedLeaderboard mostViewedLeaderboard) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.vaultVersionService = vaultVersionService;
+        this.mostViewedLeaderboard = mostViewedLeaderboard;
+    }
+
+    public void record(Long passwordId, Long ownerId, LocalDateTime viewedAt) {
+        pending.compute(passwordId, (id, entry) -> {
+            if (entry == null) {
+                entry = new Pending(ownerId, System.currentTimeMillis());
+            }
+            entry.add(1, viewedAt);
+            return entry;
+        });
+        recordedViews.increment();
+    }
+
+    @Scheduled(fixedDelayString = "${passwords.view-count.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            lastFlushAtMillis = System.currentTimeMillis();
+            return;
+        }
+        long started = System.currentTimeMillis();
+        Map<Long, Pending> drained = new LinkedHashMap<>();
+        for (Long passwordId : pending.keySet()) {
+            Pending entry = pending.remove(passwordId);
+            if (entry != null) {
+                drained.put(passwordId, entry);
+            }
+        }
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> args = new ArrayList<>(drained.size());
+        Set<Long> owners = new HashSet<>();
+        long views = 0;
+        for (Map.Entry<Long, Pending> entry : drained.entrySet()) {
+            Pending value = entry.getValue();
+            args.add(new Object[]{value.count, Timestamp.valueOf(value.lastUsed), entry.getKey()});
+            owners.add(value.ownerId);
+            views += value.count;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, args); // Silinmiş şifrelere ait artışlar 0 satır günceller, sessizce düşer
+            flushedViews.add(views);
+            lastFlushAtMillis = System.currentTimeMillis();
+            lastFlushDurationMillis = lastFlushAtMillis - started;
+        } catch (Exception e) {
+            failedFlushes.incrementAndGet();
+            // Sayılar kaybolmasın: bir sonraki denemede yazılmak üzere geri eklenir
+            drained.forEach((passwordId, entry) -> pending.merge(passwordId, entry, Pending::merge));
+            logger.error("Görüntülenme sayıları yazılamadı ({} şifre): {}", drained.size(), e.getMessage());
+            return;
+        }
+        drained.forEach((passwordId, entry) ->
+                mostViewedLeaderboard.recordViews(entry.ownerId, passwordId, entry.count, entry.lastUsed));
+        try {
+            // Liste yanıtları görüntülenme sayısını içerdiği için sahiplerin kasa sürümü (ETag) değişir
+            vaultVersionService.bumpAll(owners);
+        } catch (Exception e) {
+            logger.warn("Kasa sürümleri artırılamadı ({} kullanıcı): {}", owners.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+        if (!pending.isEmpty()) {
+            logger.warn("Kapanışta {} şifrenin görüntülenme sayısı yazılamadı", pending.size());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long now = System.currentTimeMillis();
+        long pendingViews = 0;
+        long oldestPending = now;
+        for (Pending entry : pending.values()) {
+            pendingViews += entry.count;
+            oldestPending = Math.min(oldestPending, entry.firstRecordedAtMillis);
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pendingPasswords", pending.size());
+        stats.put("pendingViews", pendingViews);
+        stats.put("oldestPendingAgeMillis", now - oldestPending); // Yazılmayı bekleyen en eski görüntülenmenin gecikmesi
+        stats.put("millisSinceLastFlush", now - lastFlushAtMillis);
+        stats.put("lastFlushDurationMillis", lastFlushDurationMillis);
+        stats.put("recordedViews", recordedViews.sum());
+        stats.put("flushedViews", flushedViews.sum());
+        stats.put("failedFlushes", failedFlushes.get());
+        return stats;
+    }
+
+    // Değişiklikler yalnızca ConcurrentHashMap kilidi altında (compute/merge) yapılır
+    private static final class Pending {
+        private final Long ownerId;
+        private final long firstRecordedAtMillis;
+        private long count;
+        private LocalDateTime lastUsed;
+
+        private Pending(Long ownerId, long firstRecordedAtMillis) {
+            this.ownerId = ownerId;
+            this.firstRecordedAtMillis = firstRecordedAtMillis;
+        }
+
+        private void add(long views, LocalDateTime viewedAt) {
+            count += views;
+            if (lastUsed == null || viewedAt.isAfter(lastUsed)) {
+                lastUsed = viewedAt;
+            }
+        }
+
+        private static Pending merge(Pending current, Pending failed) {
+            Pending merged = new Pending(current.ownerId, Math.min(current.firstRecordedAtMillis, failed.firstRecordedAtMillis));
+            merged.add(current.count, current.lastUsed);
+            merged.add(failed.count, failed.lastUsed);
+            return merged;
+        }
+    }
+}
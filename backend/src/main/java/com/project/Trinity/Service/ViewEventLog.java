@@ -0,0 +1,144 @@
+package com.project.Trinity.Service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+// Görüntülenme olay günlüğü: gösterim yolu olayı sınırlı bir kuyruğa ekler, toplu INSERT ile periyodik yazılır.
+// Günlük toplamlar (password_view_daily) rollup ile güncellenir; işlenmiş ham olaylar saklama süresi sonunda silinir.
+@Service
+public class ViewEventLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViewEventLog.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO password_view_events (user_id, password_id, viewed_at, rolled_up) VALUES (?, ?, ?, FALSE)";
+
+    // Tek ifade: işlenmemiş olaylardan bir grup işaretlenir ve günlük toplamlara eklenir.
+    // SKIP LOCKED sayesinde birden fazla instance aynı olayı iki kez saymaz.
+    private static final String ROLLUP_SQL =
+            "WITH batch AS (" +
+            "  UPDATE password_view_events SET rolled_up = TRUE WHERE id IN (" +
+            "    SELECT id FROM password_view_events WHERE rolled_up = FALSE ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED)" +
+            "  RETURNING user_id, viewed_at) " +
+            "INSERT INTO password_view_daily (user_id, view_date, views) " +
+            "SELECT user_id, CAST(viewed_at AS DATE), COUNT(*) FROM batch GROUP BY user_id, CAST(viewed_at AS DATE) " +
+            "ON CONFLICT (user_id, view_date) DO UPDATE SET views = password_view_daily.views + EXCLUDED.views";
+
+    private static final String PRUNE_SQL =
+            "DELETE FROM password_view_events WHERE id IN (" +
+            "  SELECT id FROM password_view_events WHERE rolled_up = TRUE AND viewed_at < ? LIMIT ?)";
+
+    private static final String DELETE_USER_EVENTS_SQL = "DELETE FROM password_view_events WHERE user_id = ?";
+    private static final String DELETE_USER_DAILY_SQL = "DELETE FROM password_view_daily WHERE user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<Object[]> queue;
+    private final int batchSize;
+    private final int retentionDays;
+
+    private final LongAdder writtenEvents = new LongAdder();
+    private final LongAdder droppedEvents = new LongAdder();
+    private final LongAdder prunedEvents = new LongAdder();
+
+    public ViewEventLog(JdbcTemplate jdbcTemplate,
+                        @Value("${passwords.view-events.queue-capacity:10000}") int queueCapacity,
+                        @Value("${passwords.view-events.batch-size:1000}") int batchSize,
+                        @Value("${passwords.view-events.retention-days:30}") int retentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.retentionDays = retentionDays;
+    }
+
+    // Gösterim isteğini bekletmez; kuyruk doluysa olay sayılıp düşürülür
+    public void record(Long userId, Long passwordId, LocalDateTime viewedAt) {
+        if (!queue.offer(new Object[]{userId, passwordId, Timestamp.valueOf(viewedAt)})) {
+            droppedEvents.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${passwords.view-events.flush-interval-ms:5000}")
+    public void flush() {
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+                writtenEvents.add(batch.size());
+            } catch (Exception e) {
+                // Olaylar kaybolmasın: kuyruk sınırına kadar geri eklenir, sığmayanlar düşürülmüş sayılır
+                int requeued = 0;
+                for (Object[] event : batch) {
+                    if (queue.offer(event)) {
+                        requeued++;
+                    }
+                }
+                droppedEvents.add(batch.size() - requeued);
+                logger.error("Görüntülenme olayları yazılamadı ({} olay, {} tanesi yeniden kuyruğa alındı): {}",
+                        batch.size(), requeued, e.getMessage());
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${passwords.view-events.rollup-interval-ms:60000}")
+    public void rollup() {
+        try {
+            while (jdbcTemplate.update(ROLLUP_SQL, batchSize) > 0) {
+                // Her grup kendi transaction'ında; işlenmemiş olay kalmayınca durur
+            }
+        } catch (Exception e) {
+            logger.error("Günlük görüntülenme toplamları güncellenemedi: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${passwords.view-events.prune-cron:0 30 3 * * ?}")
+    public void prune() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays));
+        try {
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(PRUNE_SQL, cutoff, batchSize);
+                prunedEvents.add(deleted);
+            } while (deleted > 0);
+        } catch (Exception e) {
+            logger.error("Eski görüntülenme olayları silinemedi: {}", e.getMessage());
+        }
+    }
+
+    // Kullanıcı silinirken: kuyruktaki, yazılmış ve günlük toplamlara işlenmiş olayları temizler
+    public void deleteUser(Long userId) {
+        queue.removeIf(event -> userId.equals(event[0]));
+        jdbcTemplate.update(DELETE_USER_EVENTS_SQL, userId);
+        jdbcTemplate.update(DELETE_USER_DAILY_SQL, userId);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queued", queue.size());
+        stats.put("written", writtenEvents.sum());
+        stats.put("dropped", droppedEvents.sum());
+        stats.put("pruned", prunedEvents.sum());
+        return stats;
+    }
+}
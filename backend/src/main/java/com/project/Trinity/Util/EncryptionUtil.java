@@ -1,39 +1,304 @@
 package com.project.Trinity.Util;
 
+import javax.crypto.AEADBadTagException;
+import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
+import javax.crypto.CipherOutputStream;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
 import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
 public class EncryptionUtil {
     private static final String ALGORITHM = "AES";
-    private static final String TRANSFORMATION = "AES";
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final String LEGACY_TRANSFORMATION = "AES"; // Eski kayıtlar: AES/ECB/PKCS5Padding
+
+    // Şifreli metin başlığı: [sürüm (1 bayt)][nonce (12 bayt)][şifreli veri + GCM etiketi (16 bayt)]
+    static final byte VERSION_GCM = 0x01;      // Ana anahtar (encryption.secret-key) ile şifrelenmiş
+    static final byte VERSION_DATA_KEY = 0x02; // Kullanıcının veri anahtarı ile şifrelenmiş
+    private static final int NONCE_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+    private static final int HEADER_LENGTH = 1 + NONCE_LENGTH;
+    private static final int MIN_SEALED_LENGTH = HEADER_LENGTH + TAG_LENGTH_BITS / 8;
+    private static final int DATA_KEY_BITS = 256;
+    private static final int LEGACY_BLOCK_SIZE = 16; // AES blok boyutu; ECB şifreli metni bunun katıdır
+
+    // Parola ile şifrelenmiş dışa aktarma dosyası:
+    // ["TRNX" (4 bayt)][sürüm (1 bayt)][salt (16 bayt)][PBKDF2 iterasyon (4 bayt)][nonce (12 bayt)][AES-GCM akış + etiket]
+    // Başlık GCM ek verisi (AAD) olarak doğrulanır.
+    private static final byte[] EXPORT_MAGIC = {'T', 'R', 'N', 'X'};
+    private static final byte EXPORT_VERSION = 0x01;
+    private static final int EXPORT_SALT_LENGTH = 16;
+
+    // Cipher.getInstance sağlayıcı araması pahalı; her thread kendi örneğini yeniden kullanır
+    private static final ThreadLocal<Cipher> GCM_CIPHER = ThreadLocal.withInitial(() -> newCipher(TRANSFORMATION));
+    private static final ThreadLocal<Cipher> LEGACY_CIPHER = ThreadLocal.withInitial(() -> newCipher(LEGACY_TRANSFORMATION));
+
+    private final SecureRandom secureRandom = new SecureRandom();
 
     @Value("${encryption.secret-key}")
     private String SECRET_KEY; // application.properties'den alınacak
 
-    public String encrypt(String data) throws Exception {
+    @Value("${encryption.master-key-version:1}")
+    private int masterKeyVersion;
+
+    @Value("${encryption.export.pbkdf2-iterations:310000}")
+    private int exportIterations;
+
+    @Value("${encryption.previous-secret-key:}")
+    private String previousSecretKey; // Rotasyon sırasında eski ana anahtar (sürüm = masterKeyVersion - 1)
+
+    private SecretKey key; // Anahtar açılışta bir kez çözülür
+    private final Map<Integer, SecretKey> masterKeys = new LinkedHashMap<>();
+
+    @PostConstruct
+    void init() {
         byte[] keyBytes = Base64.getDecoder().decode(SECRET_KEY); // Base64'ü çöz
-        SecretKeySpec key = new SecretKeySpec(keyBytes, ALGORITHM);
-        Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-        cipher.init(Cipher.ENCRYPT_MODE, key);
-        byte[] encryptedData = cipher.doFinal(data.getBytes());
-        return Base64.getEncoder().encodeToString(encryptedData);
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        masterKeys.put(masterKeyVersion, key);
+        if (previousSecretKey != null && !previousSecretKey.isBlank()) {
+            masterKeys.put(masterKeyVersion - 1, new SecretKeySpec(Base64.getDecoder().decode(previousSecretKey), ALGORITHM));
+        }
+    }
+
+    public int getMasterKeyVersion() {
+        return masterKeyVersion;
+    }
+
+    public String encrypt(String data) throws Exception {
+        return Base64.getEncoder().encodeToString(seal(VERSION_GCM, key, data.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // Kullanıcının veri anahtarı ile şifreler (zarf şifreleme)
+    public String encrypt(String data, SecretKey dataKey) throws Exception {
+        return Base64.getEncoder().encodeToString(encryptToBytes(data, dataKey));
+    }
+
+    // bytea kolonu için: sürüm başlıklı ham şifreli veri, Base64 kodlaması olmadan
+    public byte[] encryptToBytes(String data, SecretKey dataKey) throws Exception {
+        return seal(VERSION_DATA_KEY, dataKey, data.getBytes(StandardCharsets.UTF_8));
     }
 
     public String decrypt(String encryptedData) throws Exception {
+        return decrypt(encryptedData, null);
+    }
+
+    // Veri anahtarıyla şifrelenmiş değerleri dataKey ile, eski değerleri ana anahtar(lar) ile çözer
+    public String decrypt(String encryptedData, SecretKey dataKey) throws Exception {
+        byte[] decodedData;
         try {
-            byte[] keyBytes = Base64.getDecoder().decode(SECRET_KEY);
-            SecretKeySpec key = new SecretKeySpec(keyBytes, ALGORITHM);
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-            cipher.init(Cipher.DECRYPT_MODE, key);
-            byte[] decodedData = Base64.getDecoder().decode(encryptedData);
-            byte[] decryptedData = cipher.doFinal(decodedData);
-            return new String(decryptedData);
+            decodedData = Base64.getDecoder().decode(encryptedData);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Desifreleme başarısız", e);
+        }
+        return decrypt(decodedData, dataKey);
+    }
+
+    // bytea kolonundan okunan değeri doğrudan çözer
+    public String decrypt(byte[] sealed, SecretKey dataKey) {
+        try {
+            if (isDataKeyEncrypted(sealed) && dataKey != null) {
+                return new String(decryptWithDataKey(sealed, dataKey), StandardCharsets.UTF_8);
+            }
+            return new String(decryptWithMasterKeys(sealed), StandardCharsets.UTF_8);
         } catch (Exception e) {
-            throw new RuntimeException("Desifreleme başarısız: " + encryptedData, e);
+            throw new RuntimeException("Desifreleme başarısız", e);
+        }
+    }
+
+    public boolean isDataKeyEncrypted(String encryptedData) {
+        return isDataKeyEncrypted(Base64.getDecoder().decode(encryptedData));
+    }
+
+    public boolean isDataKeyEncrypted(byte[] sealed) {
+        return sealed.length >= MIN_SEALED_LENGTH && sealed[0] == VERSION_DATA_KEY;
+    }
+
+    // Başlık baytı tek başına kanıt değildir (eski ECB kayıtlarının ~1/256'sı 0x02 ile başlar); GCM etiketi doğrulanmalı
+    public boolean isSealedWithDataKey(String encryptedData, SecretKey dataKey) {
+        try {
+            return isSealedWithDataKey(Base64.getDecoder().decode(encryptedData), dataKey);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    public boolean isSealedWithDataKey(byte[] sealed, SecretKey dataKey) {
+        if (dataKey == null || !isDataKeyEncrypted(sealed)) {
+            return false;
+        }
+        try {
+            open(dataKey, sealed);
+            return true;
+        } catch (GeneralSecurityException e) {
+            return false;
+        }
+    }
+
+    // Yazılan her şeyi parolayla türetilen anahtarla şifreleyen akış; close() GCM etiketini yazar.
+    // Thread'e bağlı GCM_CIPHER kullanılmaz: akış açıkken aynı thread kayıt çözmek için onu kullanır.
+    public OutputStream passphraseEncryptingStream(OutputStream out, char[] passphrase) throws GeneralSecurityException, IOException {
+        byte[] salt = new byte[EXPORT_SALT_LENGTH];
+        byte[] nonce = new byte[NONCE_LENGTH];
+        secureRandom.nextBytes(salt);
+        secureRandom.nextBytes(nonce);
+
+        ByteBuffer header = ByteBuffer.allocate(EXPORT_MAGIC.length + 1 + EXPORT_SALT_LENGTH + 4 + NONCE_LENGTH);
+        header.put(EXPORT_MAGIC).put(EXPORT_VERSION).put(salt).putInt(exportIterations).put(nonce);
+
+        PBEKeySpec spec = new PBEKeySpec(passphrase, salt, exportIterations, DATA_KEY_BITS);
+        SecretKey exportKey;
+        try {
+            exportKey = new SecretKeySpec(
+                    SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded(), ALGORITHM);
+        } finally {
+            spec.clearPassword();
+        }
+
+        Cipher cipher = newCipher(TRANSFORMATION);
+        cipher.init(Cipher.ENCRYPT_MODE, exportKey, new GCMParameterSpec(TAG_LENGTH_BITS, nonce));
+        cipher.updateAAD(header.array());
+        out.write(header.array());
+        return new CipherOutputStream(out, cipher);
+    }
+
+    public SecretKey generateDataKey() {
+        try {
+            KeyGenerator generator = KeyGenerator.getInstance(ALGORITHM);
+            generator.init(DATA_KEY_BITS, secureRandom);
+            return generator.generateKey();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Veri anahtarı üretilemedi", e);
+        }
+    }
+
+    // Veri anahtarını güncel ana anahtarla sarar
+    public byte[] wrapKey(SecretKey dataKey) {
+        try {
+            return seal(VERSION_GCM, key, dataKey.getEncoded());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Veri anahtarı sarılamadı", e);
+        }
+    }
+
+    public SecretKey unwrapKey(byte[] wrappedKey, int wrappedWithVersion) {
+        SecretKey masterKey = masterKeys.get(wrappedWithVersion);
+        if (masterKey == null) {
+            throw new IllegalStateException("Ana anahtar sürümü bulunamadı: " + wrappedWithVersion);
+        }
+        try {
+            return new SecretKeySpec(open(masterKey, wrappedKey), ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Veri anahtarı çözülemedi", e);
+        }
+    }
+
+    private byte[] seal(byte version, SecretKey sealKey, byte[] plain) throws GeneralSecurityException {
+        byte[] nonce = new byte[NONCE_LENGTH];
+        secureRandom.nextBytes(nonce);
+
+        byte[] out = new byte[HEADER_LENGTH + plain.length + TAG_LENGTH_BITS / 8];
+        out[0] = version;
+        System.arraycopy(nonce, 0, out, 1, NONCE_LENGTH);
+
+        Cipher cipher = GCM_CIPHER.get();
+        cipher.init(Cipher.ENCRYPT_MODE, sealKey, new GCMParameterSpec(TAG_LENGTH_BITS, nonce));
+        cipher.doFinal(plain, 0, plain.length, out, HEADER_LENGTH);
+        return out;
+    }
+
+    private static byte[] open(SecretKey openKey, byte[] data) throws GeneralSecurityException {
+        Cipher cipher = GCM_CIPHER.get();
+        cipher.init(Cipher.DECRYPT_MODE, openKey, new GCMParameterSpec(TAG_LENGTH_BITS, data, 1, NONCE_LENGTH));
+        return cipher.doFinal(data, HEADER_LENGTH, data.length - HEADER_LENGTH);
+    }
+
+    private byte[] decryptWithDataKey(byte[] data, SecretKey dataKey) throws GeneralSecurityException {
+        try {
+            return open(dataKey, data);
+        } catch (AEADBadTagException e) {
+            return decryptLegacyOrThrow(data, e); // Başlığı tesadüfen 0x02 olan eski ECB kaydı
+        }
+    }
+
+    private byte[] decryptWithMasterKeys(byte[] data) throws GeneralSecurityException {
+        if (data.length < MIN_SEALED_LENGTH || data[0] != VERSION_GCM) {
+            return decryptLegacy(data, false); // GCM düzenine uymuyor; yalnızca eski ECB kaydı olabilir
+        }
+        AEADBadTagException tagFailure = null;
+        for (SecretKey masterKey : masterKeys.values()) {
+            try {
+                return open(masterKey, data);
+            } catch (AEADBadTagException e) {
+                tagFailure = e; // Diğer ana anahtarla denenir
+            }
+        }
+        return decryptLegacyOrThrow(data, tagFailure); // Başlığı tesadüfen 0x01 olan eski ECB kaydı
+    }
+
+    // GCM başlıklı değerde etiket doğrulanamazsa ECB'ye yalnızca değer eski bir ECB kaydı da olabiliyorsa düşülür:
+    // ECB şifreli metni blok boyutunun katıdır ve çözümü geçerli dolgu + geçerli UTF-8 olmalıdır.
+    // Aksi halde değiştirilmiş/bozuk GCM değeri çöp metin olarak "çözülmez", doğrulama hatası fırlatılır.
+    private byte[] decryptLegacyOrThrow(byte[] data, AEADBadTagException tagFailure) throws AEADBadTagException {
+        if (data.length % LEGACY_BLOCK_SIZE != 0) {
+            throw tagFailure;
+        }
+        try {
+            return decryptLegacy(data, true);
+        } catch (GeneralSecurityException e) {
+            throw tagFailure;
+        }
+    }
+
+    private byte[] decryptLegacy(byte[] data, boolean requireText) throws GeneralSecurityException {
+        GeneralSecurityException failure = new BadPaddingException("Eski kayıt çözülemedi");
+        for (SecretKey masterKey : masterKeys.values()) {
+            try {
+                Cipher cipher = LEGACY_CIPHER.get();
+                cipher.init(Cipher.DECRYPT_MODE, masterKey);
+                byte[] plain = cipher.doFinal(data);
+                if (!requireText || isValidUtf8(plain)) {
+                    return plain;
+                }
+            } catch (GeneralSecurityException e) {
+                failure = e;
+            }
+        }
+        throw failure;
+    }
+
+    private static boolean isValidUtf8(byte[] data) {
+        try {
+            StandardCharsets.UTF_8.newDecoder().decode(ByteBuffer.wrap(data)); // Varsayılan: hatalı girdi REPORT
+            return true;
+        } catch (CharacterCodingException e) {
+            return false;
+        }
+    }
+
+    private static Cipher newCipher(String transformation) {
+        try {
+            return Cipher.getInstance(transformation);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cipher oluşturulamadı: " + transformation, e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,30 @@
+package com.project.Trinity.Config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Düşük maliyetlerle (4-6) ölçülür; her deneme birkaç milisaniye sürer
+class PasswordEncoderConfigTest {
+
+    @Test
+    void neverGoesBelowMinimumEvenIfTargetIsUnreachable() {
+        assertThat(PasswordEncoderConfig.calibrateStrength(0, 5, 6)).isEqualTo(5);
+    }
+
+    @Test
+    void neverGoesAboveMaximumEvenIfTargetIsGenerous() {
+        assertThat(PasswordEncoderConfig.calibrateStrength(60_000, 4, 6)).isEqualTo(6);
+    }
+
+    @Test
+    void returnsTheOnlyAllowedCostWhenMinEqualsMax() {
+        assertThat(PasswordEncoderConfig.calibrateStrength(0, 4, 4)).isEqualTo(4);
+        assertThat(PasswordEncoderConfig.calibrateStrength(60_000, 4, 4)).isEqualTo(4);
+    }
+
+    @Test
+    void staysWithinBoundsForRealisticTarget() {
+        assertThat(PasswordEncoderConfig.calibrateStrength(20, 4, 8)).isBetween(4, 8);
+    }
+}
@@ -0,0 +1,72 @@
+package com.project.Trinity.Config;
+
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Testler için tek thread'li, tek kuyruk yerine sahip BoundedPasswordEncoder: thread de kuyruk da close() çağrılana kadar dolu kalır.
+public final class SaturatedPasswordEncoder implements AutoCloseable {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+    private final BoundedPasswordEncoder encoder;
+
+    public SaturatedPasswordEncoder(long retryAfterSeconds) throws InterruptedException {
+        CountDownLatch busy = new CountDownLatch(1);
+        PasswordEncoder blocking = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                block();
+                return "encoded";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                block();
+                return false;
+            }
+
+            private void block() {
+                busy.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        encoder = new BoundedPasswordEncoder(blocking, 1, 1, 5_000, retryAfterSeconds);
+        callers.submit(() -> encoder.matches("a", "b")); // Tek hash thread'ini meşgul eder
+        if (!busy.await(5, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Hash thread'i başlamadı");
+        }
+        callers.submit(() -> encoder.matches("a", "b")); // Tek kuyruk yerini doldurur
+        while (!encoder.stats().get("queueRemainingCapacity").equals(0)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    // Her kullanıcı adı için UsernameNotFoundException: DaoAuthenticationProvider sahte karşılaştırmaya düşer
+    public AuthenticationManager unknownUserAuthenticationManager() {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(username -> {
+            throw new UsernameNotFoundException("Kullanıcı bulunamadı: " + username);
+        });
+        provider.setPasswordEncoder(encoder);
+        return new ProviderManager(provider);
+    }
+
+    @Override
+    public void close() {
+        release.countDown();
+        callers.shutdownNow();
+        encoder.shutdown();
+    }
+}
@@ -0,0 +1,27 @@
+package com.project.Trinity.Controller;
+
+import com.project.Trinity.Config.SaturatedPasswordEncoder;
+import com.project.Trinity.Service.PasswordHashingRejectedException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuthControllerLoginTest {
+
+    // Sarılı ret GlobalExceptionHandler'a ulaşmalı (503 + Retry-After), 401'e dönüşmemeli
+    @Test
+    void unknownUserLoginRethrowsHashingRejectionWhenPoolIsSaturated() throws InterruptedException {
+        try (SaturatedPasswordEncoder saturated = new SaturatedPasswordEncoder(7)) {
+            AuthController controller = new AuthController(null, null, saturated.unknownUserAuthenticationManager(),
+                    null, null, null, null, null);
+            AuthenticationRequest request = new AuthenticationRequest();
+            request.setUsername("yok");
+            request.setPassword("sifre1234");
+
+            assertThatThrownBy(() -> controller.login(request))
+                    .isInstanceOf(PasswordHashingRejectedException.class)
+                    .extracting(e -> ((PasswordHashingRejectedException) e).getRetryAfterSeconds())
+                    .isEqualTo(7L);
+        }
+    }
+}
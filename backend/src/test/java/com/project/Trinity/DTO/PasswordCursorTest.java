@@ -0,0 +1,89 @@
+package com.project.Trinity.DTO;
+
+import com.project.Trinity.Entity.Status;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordCursorTest {
+
+    private static final LocalDateTime LAST_USED = LocalDateTime.of(2024, 3, 15, 10, 30, 45);
+
+    @Test
+    void roundTripsEverySort() {
+        PasswordResponse last = new PasswordResponse(42L, 7L, "Genel", "Başlık | boru", "alice", null,
+                Status.ACTIVE, false, LAST_USED, 13);
+
+        for (PasswordSort sort : PasswordSort.values()) {
+            PasswordCursor cursor = PasswordCursor.decode(PasswordCursor.after(sort, last).encode(), sort);
+
+            assertThat(cursor.getSort()).isEqualTo(sort);
+            assertThat(cursor.getId()).isEqualTo(42L);
+        }
+        assertThat(decodeValue(PasswordSort.ID, last)).isNull();
+        assertThat(decodeValue(PasswordSort.TITLE, last)).isEqualTo("Başlık | boru");
+        assertThat(decodeValue(PasswordSort.LAST_USED, last)).isEqualTo(LAST_USED);
+        assertThat(decodeValue(PasswordSort.VIEW_COUNT, last)).isEqualTo(13);
+    }
+
+    @Test
+    void neverUsedRowKeepsNullLastUsed() {
+        PasswordResponse last = new PasswordResponse(5L, 1L, "Genel", "a", "b", null, Status.ACTIVE, false, null, 0);
+
+        assertThat(decodeValue(PasswordSort.LAST_USED, last)).isNull();
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String encoded = new PasswordCursor(PasswordSort.TITLE, 1L, "???>>>").encode();
+
+        assertThat(encoded).doesNotContain("+", "/", "=");
+    }
+
+    @Test
+    void rejectsCursorOfAnotherSort() {
+        String encoded = new PasswordCursor(PasswordSort.TITLE, 1L, "a").encode();
+
+        assertThatThrownBy(() -> PasswordCursor.decode(encoded, PasswordSort.VIEW_COUNT))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsGarbageAndTamperedCursors() {
+        assertInvalid("@@@ base64 değil @@@", PasswordSort.ID);
+        assertInvalid(encoded("VIEW_COUNT"), PasswordSort.VIEW_COUNT);
+        assertInvalid(encoded("VIEW_COUNT|abc|3"), PasswordSort.VIEW_COUNT);
+        assertInvalid(encoded("VIEW_COUNT|1|çok"), PasswordSort.VIEW_COUNT);
+        assertInvalid(encoded("LAST_USED|1|dün"), PasswordSort.LAST_USED);
+        assertInvalid(encoded("UNKNOWN|1|"), PasswordSort.ID);
+    }
+
+    @Test
+    void sortParamDefaultsToIdAndRejectsUnknownValues() {
+        assertThat(PasswordSort.fromParam(null)).isEqualTo(PasswordSort.ID);
+        assertThat(PasswordSort.fromParam(" ")).isEqualTo(PasswordSort.ID);
+        assertThat(PasswordSort.fromParam("lastused")).isEqualTo(PasswordSort.LAST_USED);
+        assertThat(PasswordSort.fromParam("viewCount")).isEqualTo(PasswordSort.VIEW_COUNT);
+        assertThatThrownBy(() -> PasswordSort.fromParam("p.id; DROP TABLE passwords"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Object decodeValue(PasswordSort sort, PasswordResponse last) {
+        return PasswordCursor.decode(PasswordCursor.after(sort, last).encode(), sort).getValue();
+    }
+
+    private static void assertInvalid(String cursor, PasswordSort sort) {
+        assertThatThrownBy(() -> PasswordCursor.decode(cursor, sort))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Geçersiz imleç");
+    }
+
+    private static String encoded(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,49 @@
+package com.project.Trinity.Filter;
+
+import com.project.Trinity.Config.SaturatedPasswordEncoder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Hash havuzu doluyken bilinmeyen kullanıcıyla giriş: DaoAuthenticationProvider'ın zamanlama saldırısına karşı yaptığı
+// sahte karşılaştırma da reddedilir ve InternalAuthenticationServiceException ile sarılır; yanıt yine 503 olmalı.
+class JwtAuthenticationFilterSaturationTest {
+
+    private SaturatedPasswordEncoder saturated;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        saturated = new SaturatedPasswordEncoder(7);
+    }
+
+    @AfterEach
+    void tearDown() {
+        saturated.close();
+    }
+
+    @Test
+    void unknownUserGets503WithRetryAfterWhenPoolIsSaturated() {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(saturated.unknownUserAuthenticationManager(), null, null);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent("{\"username\":\"yok\",\"password\":\"sifre1234\"}".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        long startedAt = System.nanoTime();
+        assertThat(filter.attemptAuthentication(request, response)).isNull();
+
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("7");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt))
+                .as("Kuyruk doluyken beklemeden reddedilmeli").isLessThan(1_000);
+    }
+}
@@ -0,0 +1,123 @@
+package com.project.Trinity.Filter;
+
+import com.project.Trinity.StatementCounter;
+import com.project.Trinity.Entity.Role;
+import com.project.Trinity.Entity.User;
+import com.project.Trinity.Entity.UserProfilePicture;
+import com.project.Trinity.Repository.UserProfilePictureRepository;
+import com.project.Trinity.Repository.UserRepository;
+import com.project.Trinity.Service.UserService;
+import com.project.Trinity.Util.JwtUtil;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Profil resmi users tablosundan ayrıldı: User entity'si resmi eşlemez, kimlik doğrulama yolu resim tablosuna dokunmaz
+@SpringBootTest
+@ActiveProfiles("test")
+class JwtAuthorizationFilterPrincipalTest {
+
+    @Autowired
+    private JwtAuthorizationFilter jwtAuthorizationFilter;
+    @Autowired
+    private JwtUtil jwtUtil;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserProfilePictureRepository userProfilePictureRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        String name = "u" + UUID.randomUUID().toString().substring(0, 8);
+        user = new User();
+        user.setUsername(name);
+        user.setPassword("{noop}x");
+        user.setEmail(name + "@example.com");
+        user.setRole(Role.USER);
+        user = userRepository.save(user);
+
+        UserProfilePicture picture = new UserProfilePicture();
+        picture.setUserId(user.getId());
+        picture.setImage(new byte[64 * 1024]);
+        picture.setContentType("image/png");
+        picture.setUpdatedAt(LocalDateTime.now());
+        userProfilePictureRepository.save(picture);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void userEntityDoesNotMapProfilePictureColumn() {
+        EntityPersister persister = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel().getEntityDescriptor(User.class);
+        List<String> columns = new ArrayList<>();
+        List<String> tables = new ArrayList<>();
+        persister.forEachSelectable((index, selectable) -> {
+            columns.add(selectable.getSelectionExpression());
+            tables.add(selectable.getContainingTableExpression());
+        });
+
+        assertThat(columns).contains("username", "security_stamp")
+                .noneMatch(column -> column.contains("picture"));
+        assertThat(tables).containsOnly("users");
+    }
+
+    @Test
+    void filterBuildsPrincipalFromClaimsWithoutLoadingPicture() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/passwords");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken(user));
+        StatementCounter.reset();
+
+        jwtAuthorizationFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getPrincipal()).isInstanceOf(User.class);
+        assertThat(((User) authentication.getPrincipal()).getId()).isEqualTo(user.getId());
+        assertThat(StatementCounter.statements())
+                .as("Güncel security stamp için en fazla tek okuma; resim tablosuna erişim yok")
+                .hasSizeLessThanOrEqualTo(1)
+                .noneMatch(sql -> sql.contains("user_profile_pictures"));
+    }
+
+    @Test
+    void databaseFallbackLoadsPrincipalProjectionOnly() {
+        StatementCounter.reset();
+
+        User loaded = (User) userService.loadUserForToken(user.getUsername());
+
+        assertThat(loaded.getId()).isEqualTo(user.getId());
+        assertThat(StatementCounter.statements())
+                .as("Principal projeksiyonu ve security stamp")
+                .hasSizeLessThanOrEqualTo(2)
+                .noneMatch(sql -> sql.contains("user_profile_pictures"));
+    }
+}
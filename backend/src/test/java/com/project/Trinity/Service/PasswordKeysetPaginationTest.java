@@ -0,0 +1,132 @@
+package com.project.Trinity.Service;
+
+import com.project.Trinity.DTO.PasswordPage;
+import com.project.Trinity.DTO.PasswordResponse;
+import com.project.Trinity.DTO.PasswordSort;
+import com.project.Trinity.Entity.Category;
+import com.project.Trinity.Entity.Password;
+import com.project.Trinity.Entity.Role;
+import com.project.Trinity.Entity.User;
+import com.project.Trinity.Repository.CategoryRepository;
+import com.project.Trinity.Repository.PasswordRepository;
+import com.project.Trinity.Repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Keyset sayfalama: her sıralamada sayfalar uç uca eklenince tüm kasa, tam sıralamayla ve tekrarsız dönmeli.
+// Eşit sıralama değerleri (aynı başlık, aynı sayaç) ve hiç kullanılmamış kayıtlar sayfa sınırlarına denk getirilir.
+@SpringBootTest
+@ActiveProfiles("test")
+class PasswordKeysetPaginationTest {
+
+    private static final int VAULT_SIZE = 40;
+    private static final int PAGE_SIZE = 3;
+
+    @Autowired
+    private PasswordService passwordService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private PasswordRepository passwordRepository;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        User owner = saveUser();
+        category = new Category();
+        category.setName("Sayfa-" + owner.getUsername());
+        category = categoryRepository.save(category);
+
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 12, 0);
+        List<Password> passwords = new ArrayList<>(VAULT_SIZE);
+        for (int i = 0; i < VAULT_SIZE; i++) {
+            Password password = new Password();
+            password.setUser(owner);
+            password.setCreatedBy(owner);
+            password.setCategory(category);
+            password.setTitle("Kayıt " + (i % 7)); // Başlıklar tekrar eder
+            password.setUsername("kullanici" + i);
+            password.setViewCount(i % 4); // Sayaçlar tekrar eder
+            password.setLastUsed(i % 3 == 0 ? null : base.plusHours(i % 5)); // Üçte biri hiç kullanılmamış
+            password.setSecret(new byte[]{0x02}); // Listeleme secret okumaz
+            passwords.add(password);
+        }
+        passwordRepository.saveAll(passwords);
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(owner, null, owner.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void pagesCoverVaultInSortOrderForEverySort() {
+        List<PasswordResponse> all = passwordService.getUserPasswordsAsResponse();
+        assertThat(all).hasSize(VAULT_SIZE);
+
+        for (PasswordSort sort : PasswordSort.values()) {
+            assertThat(walk(null, sort)).as(sort.name())
+                    .extracting(PasswordResponse::getId)
+                    .containsExactlyElementsOf(all.stream().sorted(order(sort)).map(PasswordResponse::getId).toList());
+            assertThat(walk(category.getName(), sort)).as(sort.name() + " (kategori)")
+                    .extracting(PasswordResponse::getId)
+                    .containsExactlyElementsOf(all.stream().sorted(order(sort)).map(PasswordResponse::getId).toList());
+        }
+    }
+
+    private List<PasswordResponse> walk(String categoryName, PasswordSort sort) {
+        List<PasswordResponse> rows = new ArrayList<>();
+        String cursor = null;
+        PasswordPage page;
+        do {
+            page = passwordService.getUserPasswordsPage(categoryName, sort.getParam(), cursor, PAGE_SIZE);
+            assertThat(page.getItems().size()).isLessThanOrEqualTo(PAGE_SIZE);
+            rows.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (page.isHasMore());
+        assertThat(cursor).isNull();
+        return rows;
+    }
+
+    // PasswordListingRepositoryImpl ORDER BY'ının bellekteki karşılığı
+    private static Comparator<PasswordResponse> order(PasswordSort sort) {
+        Comparator<PasswordResponse> byId = Comparator.comparing(PasswordResponse::getId);
+        return switch (sort) {
+            case ID -> byId;
+            case TITLE -> Comparator.comparing(PasswordResponse::getTitle).thenComparing(byId);
+            case LAST_USED -> Comparator.comparing(PasswordResponse::getLastUsed,
+                    Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder())).thenComparing(byId.reversed());
+            case VIEW_COUNT -> Comparator.comparingInt(PasswordResponse::getViewCount).reversed().thenComparing(byId.reversed());
+        };
+    }
+
+    private User saveUser() {
+        String name = "u" + UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername(name);
+        user.setPassword("{noop}x");
+        user.setEmail(name + "@example.com");
+        user.setRole(Role.USER);
+        return userRepository.save(user);
+    }
+}
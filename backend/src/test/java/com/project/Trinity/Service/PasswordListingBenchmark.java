@@ -0,0 +1,140 @@
+package com.project.Trinity.Service;
+
+import com.project.Trinity.StatementCounter;
+import com.project.Trinity.TrinityApplication;
+import com.project.Trinity.DTO.PasswordResponse;
+import com.project.Trinity.Entity.Category;
+import com.project.Trinity.Entity.Password;
+import com.project.Trinity.Entity.Role;
+import com.project.Trinity.Entity.Status;
+import com.project.Trinity.Entity.User;
+import com.project.Trinity.Repository.CategoryRepository;
+import com.project.Trinity.Repository.PasswordRepository;
+import com.project.Trinity.Repository.UserRepository;
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Kasa listesinin istek başına ayırdığı bellek: Password.user EAGER iken yüklenen entity grafı (kayıt + kullanıcı + kategori),
+// LAZY hâli (kayıt + kategori) ve listeleme uç noktasının kullandığı DTO projeksiyonu. EAGER eşlemesi çalışma anında
+// değiştirilemediği için eski davranış user'ı da içeren fetch graph ile üretilir. H2 (test profili) üzerinde çalışır.
+// mvn -Pbenchmark test-compile exec:exec -Djmh.args="PasswordListingBenchmark -prof gc"
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordListingBenchmark {
+
+    private static final String ENTITY_LISTING =
+            "SELECT p FROM Password p WHERE p.createdBy.id = :userId AND p.status = :status ORDER BY p.id";
+
+    @Param({"1000"})
+    public int vaultSize;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+    private PasswordRepository passwordRepository;
+    private Long userId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(TrinityApplication.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .run();
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        passwordRepository = context.getBean(PasswordRepository.class);
+
+        User owner = new User();
+        owner.setUsername("benchmark");
+        owner.setPassword("{noop}x");
+        owner.setEmail("benchmark@example.com");
+        owner.setRole(Role.USER);
+        owner = context.getBean(UserRepository.class).save(owner);
+        userId = owner.getId();
+
+        Category category = new Category();
+        category.setName("Genel");
+        category = context.getBean(CategoryRepository.class).save(category);
+
+        List<Password> passwords = new ArrayList<>(vaultSize);
+        for (int i = 0; i < vaultSize; i++) {
+            Password password = new Password();
+            password.setUser(owner);
+            password.setCreatedBy(owner);
+            password.setCategory(category);
+            password.setTitle("Kayıt " + i);
+            password.setUsername("kullanici" + i);
+            password.setSecret(new byte[]{0x02});
+            passwords.add(password);
+        }
+        passwordRepository.saveAll(passwords);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // user-023 öncesi: her kayıtla birlikte sahibi de yüklenir
+    @Benchmark
+    public List<PasswordResponse> eagerUser() {
+        return listEntities("user", "category");
+    }
+
+    // LAZY Password.user: kullanıcı yüklenmez
+    @Benchmark
+    public List<PasswordResponse> lazyUser() {
+        return listEntities("category");
+    }
+
+    // GET /api/passwords: yalnızca listede gösterilen kolonlar
+    @Benchmark
+    public List<PasswordResponse> projection() {
+        StatementCounter.reset(); // Test profilinin SQL sayacı benchmark boyunca büyümesin
+        return passwordRepository.findListingByCreatedBy(userId, Status.ACTIVE);
+    }
+
+    private List<PasswordResponse> listEntities(String... attributes) {
+        StatementCounter.reset();
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            EntityGraph<Password> graph = entityManager.createEntityGraph(Password.class);
+            graph.addAttributeNodes(attributes);
+            List<Password> passwords = entityManager.createQuery(ENTITY_LISTING, Password.class)
+                    .setParameter("userId", userId)
+                    .setParameter("status", Status.ACTIVE)
+                    .setHint("jakarta.persistence.fetchgraph", graph)
+                    .getResultList();
+            List<PasswordResponse> responses = new ArrayList<>(passwords.size());
+            for (Password password : passwords) {
+                responses.add(new PasswordResponse(password));
+            }
+            return responses;
+        } finally {
+            entityManager.close();
+        }
+    }
+}
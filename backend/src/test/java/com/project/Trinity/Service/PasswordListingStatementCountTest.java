@@ -0,0 +1,130 @@
+package com.project.Trinity.Service;
+
+import com.project.Trinity.StatementCounter;
+import com.project.Trinity.DTO.PasswordPage;
+import com.project.Trinity.DTO.PasswordResponse;
+import com.project.Trinity.Entity.Category;
+import com.project.Trinity.Entity.Password;
+import com.project.Trinity.Entity.Role;
+import com.project.Trinity.Entity.User;
+import com.project.Trinity.Repository.CategoryRepository;
+import com.project.Trinity.Repository.PasswordRepository;
+import com.project.Trinity.Repository.UserRepository;
+import com.project.Trinity.Util.EncryptionUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 1.000 kayıtlı kasa: listeleme, kayıt sayısından bağımsız olarak tek projeksiyon sorgusu olmalı (N+1 yok)
+@SpringBootTest
+@ActiveProfiles("test")
+class PasswordListingStatementCountTest {
+
+    private static final int VAULT_SIZE = 1000;
+
+    @Autowired
+    private PasswordService passwordService;
+    @Autowired
+    private DataKeyService dataKeyService;
+    @Autowired
+    private EncryptionUtil encryptionUtil;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private PasswordRepository passwordRepository;
+
+    private Category category;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        User owner = saveUser();
+        category = new Category();
+        category.setName("Liste-" + owner.getUsername());
+        category = categoryRepository.save(category);
+
+        byte[] secret = encryptionUtil.encryptToBytes("gizli", dataKeyService.getOrCreate(owner.getId()));
+        List<Password> passwords = new ArrayList<>(VAULT_SIZE);
+        for (int i = 0; i < VAULT_SIZE; i++) {
+            Password password = new Password();
+            password.setUser(owner);
+            password.setCreatedBy(owner);
+            password.setCategory(category);
+            password.setTitle("Kayıt " + i);
+            password.setUsername("kullanici" + i);
+            password.setSecret(secret);
+            passwords.add(password);
+        }
+        passwordRepository.saveAll(passwords);
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(owner, null, owner.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void fullListingIssuesSingleStatement() {
+        StatementCounter.reset();
+
+        List<PasswordResponse> passwords = passwordService.getUserPasswordsAsResponse();
+
+        assertThat(passwords).hasSize(VAULT_SIZE);
+        assertThat(passwords).allSatisfy(p -> assertThat(p.getCategoryName()).isEqualTo(category.getName()));
+        assertThat(StatementCounter.statements()).hasSize(1);
+    }
+
+    @Test
+    void categoryListingIssuesSingleStatement() {
+        StatementCounter.reset();
+
+        List<PasswordResponse> passwords = passwordService.getPasswordsByCategory(category.getName());
+
+        assertThat(passwords).hasSize(VAULT_SIZE);
+        assertThat(StatementCounter.statements()).hasSize(1);
+    }
+
+    @Test
+    void pagedListingIssuesSingleStatementPerPage() {
+        StatementCounter.reset();
+
+        PasswordPage first = passwordService.getUserPasswordsPage(null, "title", null, 50);
+
+        assertThat(first.getItems()).hasSize(50);
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(StatementCounter.statements()).hasSize(1);
+
+        StatementCounter.reset();
+
+        PasswordPage second = passwordService.getUserPasswordsPage(category.getName(), "title", first.getNextCursor(), 50);
+
+        assertThat(second.getItems()).hasSize(50);
+        assertThat(second.getItems().get(0).getTitle()).isGreaterThan(first.getItems().get(49).getTitle());
+        assertThat(StatementCounter.statements()).hasSize(1);
+    }
+
+    private User saveUser() {
+        String name = "u" + UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername(name);
+        user.setPassword("{noop}x");
+        user.setEmail(name + "@example.com");
+        user.setRole(Role.USER);
+        return userRepository.save(user);
+    }
+}
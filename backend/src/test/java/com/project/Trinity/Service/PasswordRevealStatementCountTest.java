@@ -0,0 +1,105 @@
+package com.project.Trinity.Service;
+
+import com.project.Trinity.StatementCounter;
+import com.project.Trinity.Entity.Category;
+import com.project.Trinity.Entity.Password;
+import com.project.Trinity.Entity.Role;
+import com.project.Trinity.Entity.User;
+import com.project.Trinity.Repository.CategoryRepository;
+import com.project.Trinity.Repository.PasswordRepository;
+import com.project.Trinity.Repository.UserRepository;
+import com.project.Trinity.Util.EncryptionUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Şifre gösterimi: sahiplik sorguda, tek okuma; görüntülenme sayacı ve olay günlüğü tamponlanır (SQL yok)
+@SpringBootTest
+@ActiveProfiles("test")
+class PasswordRevealStatementCountTest {
+
+    @Autowired
+    private PasswordService passwordService;
+    @Autowired
+    private DataKeyService dataKeyService;
+    @Autowired
+    private EncryptionUtil encryptionUtil;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private PasswordRepository passwordRepository;
+
+    private User owner;
+    private Password password;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        owner = saveUser();
+        Category category = new Category();
+        category.setName("Genel");
+        category = categoryRepository.save(category);
+
+        password = new Password();
+        password.setUser(owner);
+        password.setCreatedBy(owner);
+        password.setCategory(category);
+        password.setTitle("E-posta");
+        password.setUsername("alice");
+        password.setSecret(encryptionUtil.encryptToBytes("çok-gizli", dataKeyService.getOrCreate(owner.getId())));
+        password = passwordRepository.save(password);
+    }
+
+    @Test
+    void revealIssuesSingleStatement() throws Exception {
+        StatementCounter.reset();
+
+        String plain = passwordService.revealPassword(password.getId(), owner.getId());
+
+        assertThat(plain).isEqualTo("çok-gizli");
+        assertThat(StatementCounter.statements())
+                .as("Gösterim tek SELECT olmalı (veri anahtarı önbellekte)")
+                .hasSize(1);
+    }
+
+    @Test
+    void revealOfAnotherUsersPasswordFailsWithoutLoadingIt() {
+        User stranger = saveUser();
+        StatementCounter.reset();
+
+        assertThatThrownBy(() -> passwordService.revealPassword(password.getId(), stranger.getId()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(StatementCounter.statements()).hasSize(1);
+    }
+
+    @Test
+    void ownershipIsCheckedOnCreatedByWithoutJoiningUsers() throws Exception {
+        StatementCounter.reset();
+
+        passwordService.revealPassword(password.getId(), owner.getId());
+        passwordRepository.findByIdAndCreatedById(password.getId(), owner.getId());
+
+        assertThat(StatementCounter.statements())
+                .hasSize(2)
+                .allMatch(sql -> sql.contains("created_by"))
+                .noneMatch(sql -> sql.contains("users"));
+    }
+
+    private User saveUser() {
+        String name = "u" + UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername(name);
+        user.setPassword("{noop}x");
+        user.setEmail(name + "@example.com");
+        user.setRole(Role.USER);
+        return userRepository.save(user);
+    }
+}
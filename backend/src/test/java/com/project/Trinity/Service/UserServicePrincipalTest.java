@@ -0,0 +1,79 @@
+package com.project.Trinity.Service;
+
+import com.project.Trinity.Entity.Role;
+import com.project.Trinity.Entity.Status;
+import com.project.Trinity.Entity.User;
+import com.project.Trinity.Repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Başka bir node'daki değişiklik burada satırı doğrudan güncelleyerek taklit edilir: bu node'un önbellekleri temizlenmez.
+@SpringBootTest
+@ActiveProfiles("test")
+class UserServicePrincipalTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private SecurityStampService securityStampService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        String name = "u" + UUID.randomUUID().toString().substring(0, 8);
+        user = new User();
+        user.setUsername(name);
+        user.setPassword("{noop}eski");
+        user.setEmail(name + "@example.com");
+        user.setRole(Role.USER);
+        user = userRepository.save(user);
+        userService.loadUserForToken(name); // Principal ve stamp önbelleğe alınır
+    }
+
+    @Test
+    void loginReadsPasswordAndStatusFromDatabase() {
+        jdbcTemplate.update("UPDATE users SET password = ?, status = ?, frozen_at = ?, security_stamp = security_stamp + 1 WHERE id = ?",
+                "{noop}yeni", Status.INACTIVE.name(), LocalDateTime.now().minusDays(40), user.getId());
+
+        User loaded = (User) userService.loadUserByUsername(user.getUsername());
+
+        assertThat(loaded.getPassword()).isEqualTo("{noop}yeni");
+        assertThat(loaded.getStatus()).isEqualTo(Status.INACTIVE);
+    }
+
+    @Test
+    void tokenPathKeepsSnapshotWhileStampIsCurrent() {
+        jdbcTemplate.update("UPDATE users SET password = ? WHERE id = ?", "{noop}yeni", user.getId());
+
+        User loaded = (User) userService.loadUserForToken(user.getUsername());
+
+        assertThat(loaded.getPassword()).isEqualTo("{noop}eski");
+    }
+
+    @Test
+    void tokenPathReloadsSnapshotOnceStampChanged() {
+        jdbcTemplate.update("UPDATE users SET password = ?, role = ?, security_stamp = security_stamp + 1 WHERE id = ?",
+                "{noop}yeni", Role.ADMIN.name(), user.getId());
+        securityStampService.evict(user.getId()); // Stamp önbelleğinin TTL'inin dolması
+
+        User loaded = (User) userService.loadUserForToken(user.getUsername());
+
+        assertThat(loaded.getPassword()).isEqualTo("{noop}yeni");
+        assertThat(loaded.getRole()).isEqualTo(Role.ADMIN);
+        assertThat(loaded.getSecurityStamp()).isEqualTo(user.getSecurityStamp() + 1);
+    }
+}
@@ -0,0 +1,67 @@
+package com.project.Trinity.Service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ViewEventLogTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    @Test
+    void failedBatchIsRequeuedAndWrittenOnNextFlush() {
+        ViewEventLog log = new ViewEventLog(jdbcTemplate, 10, 100, 30);
+        for (long i = 1; i <= 3; i++) {
+            log.record(1L, i, LocalDateTime.now());
+        }
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("bağlantı yok"))
+                .thenReturn(new int[]{1, 1, 1});
+
+        log.flush();
+        assertThat(log.stats()).containsEntry("queued", 3).containsEntry("dropped", 0L).containsEntry("written", 0L);
+
+        log.flush();
+        assertThat(log.stats()).containsEntry("queued", 0).containsEntry("dropped", 0L).containsEntry("written", 3L);
+    }
+
+    @Test
+    void requeueStopsAtCapacityAndCountsTheRestAsDropped() {
+        ViewEventLog log = new ViewEventLog(jdbcTemplate, 3, 100, 30);
+        for (long i = 1; i <= 3; i++) {
+            log.record(1L, i, LocalDateTime.now());
+        }
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            log.record(2L, 99L, LocalDateTime.now()); // Yazma sürerken gelen yeni olay kuyrukta yer tutar
+            throw new DataAccessResourceFailureException("bağlantı yok");
+        });
+
+        log.flush();
+
+        assertThat(log.stats()).containsEntry("queued", 3).containsEntry("dropped", 1L);
+    }
+
+    @Test
+    void deleteUserDropsQueuedEventsAndDeletesStoredRows() {
+        ViewEventLog log = new ViewEventLog(jdbcTemplate, 10, 100, 30);
+        log.record(1L, 10L, LocalDateTime.now());
+        log.record(2L, 20L, LocalDateTime.now());
+
+        log.deleteUser(1L);
+
+        assertThat(log.stats()).containsEntry("queued", 1);
+        verify(jdbcTemplate).update(eq("DELETE FROM password_view_events WHERE user_id = ?"), eq(1L));
+        verify(jdbcTemplate).update(eq("DELETE FROM password_view_daily WHERE user_id = ?"), eq(1L));
+    }
+}
@@ -0,0 +1,27 @@
+package com.project.Trinity;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Hibernate'in hazırladığı SQL ifadelerini thread bazında toplar; zamanlanmış arka plan işleri sayımı bozmaz.
+// application-test.properties içinde hibernate.session_factory.statement_inspector olarak kayıtlıdır.
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get().add(sql);
+        return sql;
+    }
+
+    public static void reset() {
+        STATEMENTS.get().clear();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS.get());
+    }
+}
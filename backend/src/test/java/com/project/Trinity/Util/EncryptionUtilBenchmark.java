@@ -0,0 +1,104 @@
+package com.project.Trinity.Util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+// Eski EncryptionUtil (her çağrıda anahtar çözümü + Cipher.getInstance("AES"), ECB) ile
+// önbellekli anahtar ve thread'e bağlı Cipher kullanan AES-GCM karşılaştırması.
+// mvn -Pbenchmark test-compile exec:exec -Djmh.args="EncryptionUtilBenchmark -prof gc"
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EncryptionUtilBenchmark {
+
+    private static final String SECRET_KEY = Base64.getEncoder()
+            .encodeToString("0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.US_ASCII));
+    private static final String PLAIN = "kasa-kaydı-örnek-şifre-42";
+
+    private EncryptionUtil encryptionUtil;
+    private SecretKey dataKey;
+    private String legacySealed;
+    private String masterKeySealed;
+    private byte[] dataKeySealed;
+
+    @Setup
+    public void setUp() throws Exception {
+        encryptionUtil = new EncryptionUtil();
+        ReflectionTestUtils.setField(encryptionUtil, "SECRET_KEY", SECRET_KEY);
+        ReflectionTestUtils.setField(encryptionUtil, "masterKeyVersion", 1);
+        ReflectionTestUtils.setField(encryptionUtil, "previousSecretKey", "");
+        encryptionUtil.init();
+        dataKey = encryptionUtil.generateDataKey();
+        legacySealed = legacyEncrypt(PLAIN);
+        masterKeySealed = encryptionUtil.encrypt(PLAIN);
+        dataKeySealed = encryptionUtil.encryptToBytes(PLAIN, dataKey);
+    }
+
+    @Benchmark
+    public String legacyEncrypt() throws Exception {
+        return legacyEncrypt(PLAIN);
+    }
+
+    @Benchmark
+    public String legacyDecrypt() throws Exception {
+        return legacyDecrypt(legacySealed);
+    }
+
+    @Benchmark
+    public String masterKeyEncrypt() throws Exception {
+        return encryptionUtil.encrypt(PLAIN);
+    }
+
+    @Benchmark
+    public String masterKeyDecrypt() throws Exception {
+        return encryptionUtil.decrypt(masterKeySealed);
+    }
+
+    @Benchmark
+    public byte[] dataKeyEncrypt() throws Exception {
+        return encryptionUtil.encryptToBytes(PLAIN, dataKey);
+    }
+
+    @Benchmark
+    public String dataKeyDecrypt() {
+        return encryptionUtil.decrypt(dataKeySealed, dataKey);
+    }
+
+    // Eski EncryptionUtil.encrypt/decrypt gövdeleri (değiştirilmeden)
+    private static String legacyEncrypt(String data) throws Exception {
+        byte[] keyBytes = Base64.getDecoder().decode(SECRET_KEY);
+        SecretKeySpec key = new SecretKeySpec(keyBytes, "AES");
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.ENCRYPT_MODE, key);
+        byte[] encryptedData = cipher.doFinal(data.getBytes());
+        return Base64.getEncoder().encodeToString(encryptedData);
+    }
+
+    private static String legacyDecrypt(String encryptedData) throws Exception {
+        byte[] keyBytes = Base64.getDecoder().decode(SECRET_KEY);
+        SecretKeySpec key = new SecretKeySpec(keyBytes, "AES");
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.DECRYPT_MODE, key);
+        byte[] decodedData = Base64.getDecoder().decode(encryptedData);
+        return new String(cipher.doFinal(decodedData));
+    }
+}
@@ -0,0 +1,165 @@
+package com.project.Trinity.Util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EncryptionUtilTest {
+
+    private static final byte[] MASTER_KEY = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PREVIOUS_KEY = "fedcba9876543210fedcba9876543210".getBytes(StandardCharsets.US_ASCII);
+
+    private EncryptionUtil encryptionUtil;
+
+    @BeforeEach
+    void setUp() {
+        encryptionUtil = newEncryptionUtil(MASTER_KEY, 2, PREVIOUS_KEY);
+    }
+
+    @Test
+    void masterKeyRoundTripUsesGcmHeader() throws Exception {
+        String sealed = encryptionUtil.encrypt("gizli-şifre");
+
+        byte[] raw = Base64.getDecoder().decode(sealed);
+        assertThat(raw[0]).isEqualTo(EncryptionUtil.VERSION_GCM);
+        assertThat(encryptionUtil.isDataKeyEncrypted(sealed)).isFalse();
+        assertThat(encryptionUtil.decrypt(sealed)).isEqualTo("gizli-şifre");
+    }
+
+    @Test
+    void sameInputEncryptsToDifferentCiphertexts() throws Exception {
+        assertThat(encryptionUtil.encrypt("aynı")).isNotEqualTo(encryptionUtil.encrypt("aynı"));
+    }
+
+    @Test
+    void dataKeyRoundTripUsesDataKeyHeader() throws Exception {
+        SecretKey dataKey = encryptionUtil.generateDataKey();
+
+        byte[] sealed = encryptionUtil.encryptToBytes("kasa-kaydı", dataKey);
+
+        assertThat(sealed[0]).isEqualTo(EncryptionUtil.VERSION_DATA_KEY);
+        assertThat(encryptionUtil.isDataKeyEncrypted(sealed)).isTrue();
+        assertThat(encryptionUtil.decrypt(sealed, dataKey)).isEqualTo("kasa-kaydı");
+    }
+
+    @Test
+    void dataKeyValueFailsWithWrongDataKey() throws Exception {
+        byte[] sealed = encryptionUtil.encryptToBytes("kasa-kaydı", encryptionUtil.generateDataKey());
+
+        assertThatThrownBy(() -> encryptionUtil.decrypt(sealed, encryptionUtil.generateDataKey()))
+                .hasCauseInstanceOf(AEADBadTagException.class);
+    }
+
+    @Test
+    void readsLegacyEcbValues() throws Exception {
+        String legacy = legacyEncrypt(MASTER_KEY, "eski-şifre");
+
+        assertThat(encryptionUtil.isDataKeyEncrypted(legacy)).isFalse();
+        assertThat(encryptionUtil.decrypt(legacy)).isEqualTo("eski-şifre");
+    }
+
+    @Test
+    void readsValuesSealedWithPreviousMasterKey() throws Exception {
+        EncryptionUtil previous = newEncryptionUtil(PREVIOUS_KEY, 1, null);
+
+        assertThat(encryptionUtil.decrypt(previous.encrypt("önceki"))).isEqualTo("önceki");
+        assertThat(encryptionUtil.decrypt(legacyEncrypt(PREVIOUS_KEY, "önceki-ecb"))).isEqualTo("önceki-ecb");
+    }
+
+    @Test
+    void unwrapsDataKeyWrappedWithCurrentVersion() {
+        SecretKey dataKey = encryptionUtil.generateDataKey();
+
+        byte[] wrapped = encryptionUtil.wrapKey(dataKey);
+
+        assertThat(encryptionUtil.unwrapKey(wrapped, 2).getEncoded()).isEqualTo(dataKey.getEncoded());
+        assertThatThrownBy(() -> encryptionUtil.unwrapKey(wrapped, 7)).isInstanceOf(IllegalStateException.class);
+    }
+
+    // 3 baytlık düz metin: 1 + 12 + 3 + 16 = 32 bayt, ECB blok boyutunun katı (ECB ile karışabilecek düzen)
+    @Test
+    void tamperedGcmValueWithBlockAlignedLengthFailsAuthentication() throws Exception {
+        assertTamperedValueIsRejected("abc", 32);
+    }
+
+    @Test
+    void tamperedGcmValueWithUnalignedLengthFailsAuthentication() throws Exception {
+        assertTamperedValueIsRejected("abcd", 33);
+    }
+
+    private void assertTamperedValueIsRejected(String plain, int expectedLength) throws Exception {
+        byte[] raw = Base64.getDecoder().decode(encryptionUtil.encrypt(plain));
+        assertThat(raw).hasSize(expectedLength);
+        raw[raw.length - 1] ^= 0x01; // GCM etiketini boz
+
+        assertThatThrownBy(() -> encryptionUtil.decrypt(raw, null))
+                .hasMessage("Desifreleme başarısız")
+                .hasCauseInstanceOf(AEADBadTagException.class);
+    }
+
+    // Eski ECB kayıtlarının ~1/256'sı tesadüfen veri anahtarı başlığı (0x02) ile başlar
+    @Test
+    void legacyEcbValueStartingWithDataKeyHeaderStillDecrypts() throws Exception {
+        SecretKey dataKey = encryptionUtil.generateDataKey();
+        String plain = null;
+        byte[] legacy = null;
+        for (int i = 0; legacy == null || legacy[0] != EncryptionUtil.VERSION_DATA_KEY; i++) {
+            plain = i + "-eski-uzun-şifre"; // 16+ karakter: en az 32 bayt; sayaç ilk ECB bloğunu değiştirir
+            legacy = Base64.getDecoder().decode(legacyEncrypt(MASTER_KEY, plain));
+        }
+
+        assertThat(encryptionUtil.isDataKeyEncrypted(legacy)).isTrue();
+        assertThat(encryptionUtil.isSealedWithDataKey(legacy, dataKey)).isFalse();
+        assertThat(encryptionUtil.decrypt(legacy, dataKey)).isEqualTo(plain);
+        assertThat(encryptionUtil.decrypt(legacy, null)).isEqualTo(plain);
+    }
+
+    @Test
+    void dataKeyValueIsRecognisedOnlyWithItsOwnKey() throws Exception {
+        SecretKey dataKey = encryptionUtil.generateDataKey();
+        byte[] sealed = encryptionUtil.encryptToBytes("kasa-kaydı", dataKey);
+
+        assertThat(encryptionUtil.isSealedWithDataKey(sealed, dataKey)).isTrue();
+        assertThat(encryptionUtil.isSealedWithDataKey(sealed, encryptionUtil.generateDataKey())).isFalse();
+        assertThat(encryptionUtil.isSealedWithDataKey(sealed, null)).isFalse();
+        assertThat(encryptionUtil.isSealedWithDataKey(Base64.getEncoder().encodeToString(sealed), dataKey)).isTrue();
+    }
+
+    @Test
+    void tamperedDataKeyValueFailsAuthentication() throws Exception {
+        SecretKey dataKey = encryptionUtil.generateDataKey();
+        byte[] sealed = encryptionUtil.encryptToBytes("abc", dataKey); // 32 bayt, blok boyutunun katı
+        sealed[sealed.length - 1] ^= 0x01;
+
+        assertThatThrownBy(() -> encryptionUtil.decrypt(sealed, dataKey))
+                .hasMessage("Desifreleme başarısız")
+                .hasCauseInstanceOf(AEADBadTagException.class);
+    }
+
+    private static EncryptionUtil newEncryptionUtil(byte[] masterKey, int version, byte[] previousKey) {
+        EncryptionUtil util = new EncryptionUtil();
+        ReflectionTestUtils.setField(util, "SECRET_KEY", Base64.getEncoder().encodeToString(masterKey));
+        ReflectionTestUtils.setField(util, "masterKeyVersion", version);
+        ReflectionTestUtils.setField(util, "previousSecretKey",
+                previousKey != null ? Base64.getEncoder().encodeToString(previousKey) : "");
+        util.init();
+        return util;
+    }
+
+    // Eski EncryptionUtil'in yazdığı biçim: Cipher.getInstance("AES") (ECB/PKCS5Padding), Base64
+    private static String legacyEncrypt(byte[] key, String plain) throws Exception {
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"));
+        return Base64.getEncoder().encodeToString(cipher.doFinal(plain.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,89 @@
+package com.project.Trinity.Util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+// İstek başına token doğrulama: eski yol (extractUsername + isTokenValid = her seferinde anahtar çözümü,
+// yeni parser ve imza doğrulaması ile 3 ayrıştırma) ile önbellekli claim'ler karşılaştırılır.
+// mvn -Pbenchmark test-compile exec:exec -Djmh.args="JwtUtilBenchmark -prof gc"
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = Base64.getEncoder()
+            .encodeToString("test-secret-key-that-is-at-least-256-bits!".getBytes(StandardCharsets.US_ASCII));
+
+    private final UserDetails alice = User.withUsername("alice").password("x").roles("USER").build();
+
+    private JwtUtil jwtUtil;
+    private JwtParser sharedParser;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheMaxSize", 10_000L);
+        jwtUtil.init();
+        sharedParser = (JwtParser) ReflectionTestUtils.getField(jwtUtil, "jwtParser");
+        token = jwtUtil.generateToken(alice);
+    }
+
+    // Eski JwtAuthorizationFilter akışı: extractUsername, ardından isTokenValid (kullanıcı adı + süre) = 3 ayrıştırma
+    @Benchmark
+    public boolean legacyTripleParse() {
+        String username = legacyClaims(token).getSubject();
+        return username != null
+                && legacyClaims(token).getSubject().equals(alice.getUsername())
+                && !legacyClaims(token).getExpiration().before(new Date());
+    }
+
+    // Önbellek ıskası: paylaşılan parser ile tek imza doğrulaması
+    @Benchmark
+    public boolean singleParse() {
+        Claims claims = sharedParser.parseSignedClaims(token).getPayload();
+        return jwtUtil.isTokenValid(claims, alice);
+    }
+
+    // Güncel filtre akışı: token özeti ile önbellekten claim'ler, imza yeniden doğrulanmaz
+    @Benchmark
+    public boolean cachedClaims() {
+        Claims claims = jwtUtil.extractAllClaims(token);
+        return jwtUtil.isTokenValid(claims, alice);
+    }
+
+    // Eski JwtUtil.extractAllClaims gövdesi (değiştirilmeden)
+    private static Claims legacyClaims(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
@@ -0,0 +1,82 @@
+package com.project.Trinity.Util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilTest {
+
+    private static final String SECRET = Base64.getEncoder()
+            .encodeToString("test-secret-key-that-is-at-least-256-bits!".getBytes(StandardCharsets.US_ASCII));
+
+    private final UserDetails alice = User.withUsername("alice").password("x").roles("USER").build();
+
+    @Test
+    void verifiedClaimsAreServedFromCache() {
+        JwtUtil jwtUtil = newJwtUtil(60_000);
+        String token = jwtUtil.generateToken(alice);
+
+        Claims first = jwtUtil.extractAllClaims(token);
+        Claims second = jwtUtil.extractAllClaims(token);
+
+        assertThat(second).isSameAs(first); // İkinci çağrı imzayı yeniden doğrulamaz
+        assertThat(jwtUtil.extractUsername(token)).isEqualTo("alice");
+        assertThat(jwtUtil.isTokenValid(token, alice)).isTrue();
+    }
+
+    @Test
+    void tokenIsNotValidForAnotherUser() {
+        JwtUtil jwtUtil = newJwtUtil(60_000);
+        String token = jwtUtil.generateToken(alice);
+        UserDetails bob = User.withUsername("bob").password("x").roles("USER").build();
+
+        assertThat(jwtUtil.isTokenValid(token, bob)).isFalse();
+    }
+
+    @Test
+    void tamperedTokenIsRejectedEvenAfterOriginalWasCached() {
+        JwtUtil jwtUtil = newJwtUtil(60_000);
+        String token = jwtUtil.generateToken(alice);
+        jwtUtil.extractAllClaims(token);
+
+        String[] parts = token.split("\\.");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)
+                        .replace("alice", "admin").getBytes(StandardCharsets.UTF_8));
+        String forged = parts[0] + "." + forgedPayload + "." + parts[2];
+
+        assertThatThrownBy(() -> jwtUtil.extractAllClaims(forged)).isInstanceOf(SignatureException.class);
+    }
+
+    // exp saniye hassasiyetinde: 1 sn'lik token en geç ~1 sn sonra düşer; önbellek de o anda boşalmalı
+    @Test
+    void cachedClaimsAreNotReturnedAfterExpiry() throws InterruptedException {
+        JwtUtil jwtUtil = newJwtUtil(1_000);
+        String token = jwtUtil.generateToken(alice);
+        Claims claims = jwtUtil.extractAllClaims(token);
+
+        long waitMillis = claims.getExpiration().getTime() - System.currentTimeMillis() + 100;
+        Thread.sleep(Math.max(waitMillis, 0));
+
+        assertThatThrownBy(() -> jwtUtil.extractAllClaims(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    private static JwtUtil newJwtUtil(long expirationMillis) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpiration", expirationMillis);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheMaxSize", 100L);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+}
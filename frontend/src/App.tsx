@@ -64,7 +64,9 @@ const AppContent: React.FC = () => {
             phone: response.data.phone,
             role: response.data.role,
             status: response.data.status,
-            profilePicture: response.data.profilePicture || null,
+            profilePicture: response.data.avatarUrl
+              ? `https://trinity-backend-szj7.onrender.com${response.data.avatarUrl}`
+              : null,
           });
         } catch (error) {
           console.error("Kullanıcı bilgisi çekilirken hata:", error);
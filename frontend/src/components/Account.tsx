@@ -274,7 +274,7 @@ const Account: React.FC<AccountProps> = ({ user, updateProfilePicture, updateUse
                   <img
                     src={
                       user.profilePicture
-                        ? `data:image/jpeg;base64,${user.profilePicture}`
+                        ? `${user.profilePicture}&size=medium`
                         : "https://via.placeholder.com/150?text=Resim+Yok"
                     }
                     alt="Profil resmi"
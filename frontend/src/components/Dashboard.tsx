@@ -110,7 +110,7 @@ const Dashboard: React.FC<DashboardProps> = ({ user }) => {
             axios.get("https://trinity-backend-szj7.onrender.com/api/user/categories", {
               headers: { Authorization: `Bearer ${token}` },
             }),
-            axios.get("https://trinity-backend-szj7.onrender.com/api/user/passwords", {
+            axios.get("https://trinity-backend-szj7.onrender.com/api/user/passwords?unpaged=true", {
               headers: { Authorization: `Bearer ${token}` },
             }),
           ]);
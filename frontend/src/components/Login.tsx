@@ -20,7 +20,7 @@ interface UserInfoResponse {
   phone?: string;
   role: string;
   status?: string;
-  profilePicture?: string;
+  avatarUrl?: string;
 }
 
 interface LoginProps {
@@ -52,7 +52,7 @@ const Login: React.FC<LoginProps> = ({ updateUser }) => {
       localStorage.setItem("refreshToken", response.refreshToken);
 
       const userInfo: UserInfoResponse = await getUserInfo(response.accessToken);
-      const { username, role, email, phone, status, profilePicture } = userInfo;
+      const { username, role, email, phone, status, avatarUrl } = userInfo;
 
       localStorage.setItem("username", username);
 
@@ -62,7 +62,7 @@ const Login: React.FC<LoginProps> = ({ updateUser }) => {
         email,
         phone,
         status,
-        profilePicture: profilePicture || null,
+        profilePicture: avatarUrl ? `https://trinity-backend-szj7.onrender.com${avatarUrl}` : null,
       });
 
       if (role === "ADMIN") {
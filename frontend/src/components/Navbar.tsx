@@ -28,11 +28,7 @@ const Navbar: React.FC<{ username: string; profilePicture: string | null }> = ({
         <div className="relative group">
           {profilePicture ? (
             <img
-              src={
-                profilePicture.startsWith("data:image")
-                  ? profilePicture
-                  : `data:image/jpeg;base64,${profilePicture}`
-              }
+              src={`${profilePicture}&size=small`}
               alt="Profil resmi"
               className="w-8 h-8 sm:w-10 sm:h-10 md:w-12 md:h-12 rounded-full object-cover border-2 border-red-500 shadow-[0_0_8px_rgba(255,0,0,0.5)] transition-transform group-hover:scale-105"
             />
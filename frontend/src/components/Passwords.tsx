@@ -94,12 +94,12 @@ const Passwords: React.FC<PasswordsProps> = ({ user }) => {
 
         const passedCategory = location.state?.selectedCategory as Category | null;
 
-        let url = "https://trinity-backend-szj7.onrender.com/api/user/passwords";
+        let url = "https://trinity-backend-szj7.onrender.com/api/user/passwords?unpaged=true";
         if (passedCategory && passedCategory.name !== "Tümü") {
           setSelectedCategory(passedCategory);
-          url = `https://trinity-backend-szj7.onrender.com/api/user/passwords/by-category?category=${passedCategory.name}`;
+          url = `https://trinity-backend-szj7.onrender.com/api/user/passwords/by-category?category=${passedCategory.name}&unpaged=true`;
         } else if (selectedCategory && selectedCategory.name !== "Tümü") {
-          url = `https://trinity-backend-szj7.onrender.com/api/user/passwords/by-category?category=${selectedCategory.name}`;
+          url = `https://trinity-backend-szj7.onrender.com/api/user/passwords/by-category?category=${selectedCategory.name}&unpaged=true`;
         }
 
         const response = await axios.get(url, {
@@ -218,7 +218,7 @@ const Passwords: React.FC<PasswordsProps> = ({ user }) => {
       setNewPassword({ categoryId: "", title: "", username: "", password: "", description: "", status: "ACTIVE" });
       setErrors([]); // Hataları sıfırla
 
-      const response = await axios.get("https://trinity-backend-szj7.onrender.com/api/user/passwords", {
+      const response = await axios.get("https://trinity-backend-szj7.onrender.com/api/user/passwords?unpaged=true", {
         headers: { Authorization: `Bearer ${token}` },
       });
       // Mapping: featured -> isFeatured
@@ -299,7 +299,7 @@ const Passwords: React.FC<PasswordsProps> = ({ user }) => {
       setVerifyCode("");
 
       // Şifreleri yeniden yükle
-      const response = await axios.get("https://trinity-backend-szj7.onrender.com/api/user/passwords", {
+      const response = await axios.get("https://trinity-backend-szj7.onrender.com/api/user/passwords?unpaged=true", {
         headers: { Authorization: `Bearer ${token}` },
       });
       // Mapping: featured -> isFeatured
@@ -328,7 +328,7 @@ const Passwords: React.FC<PasswordsProps> = ({ user }) => {
         headers: { Authorization: `Bearer ${token}` },
       });
 
-      const response = await axios.get("https://trinity-backend-szj7.onrender.com/api/user/passwords", {
+      const response = await axios.get("https://trinity-backend-szj7.onrender.com/api/user/passwords?unpaged=true", {
         headers: { Authorization: `Bearer ${token}` },
       });
       setPasswords(response.data);
@@ -58,7 +58,7 @@ const UserManagement: React.FC<UserManagementProps> = ({ user }) => {
         return;
       }
 
-      const response = await axios.get("https://trinity-backend-szj7.onrender.com/api/admin/users", {
+      const response = await axios.get("https://trinity-backend-szj7.onrender.com/api/admin/users?unpaged=true", {
         headers: { Authorization: `Bearer ${token}` },
       });
       setUsers(response.data);